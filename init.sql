@@ -18,6 +18,8 @@ CREATE TABLE ship
     speed    DOUBLE      NULL,
     crewSize INT(4)      NULL,
     rating   DOUBLE      NULL,
+    version  BIGINT(20)  NOT NULL DEFAULT 0,
+    lastModified TIMESTAMP NULL,
     PRIMARY KEY (id)
 )
     ENGINE = InnoDB
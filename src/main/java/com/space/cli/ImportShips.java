@@ -0,0 +1,71 @@
+package com.space.cli;
+
+import com.space.config.PersistenceConfig;
+import com.space.model.ShipImportFormat;
+import com.space.model.ShipImportReport;
+import com.space.service.ConnectionPoolMetrics;
+import com.space.service.PrimitiveRatingCalculator;
+import com.space.service.ShipChangeNotifier;
+import com.space.service.ShipImporter;
+import com.space.service.ShipOutbox;
+import com.space.service.ShipValidator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Imports a CSV or NDJSON file of ships without the web application, the format is taken from
+ * the file extension:
+ * <pre>
+ * java -cp ... com.space.cli.ImportShips ships.csv [profile]
+ * </pre>
+ * The profile defaults to prod, the database is configured as for the web application. Only the
+ * database, the importer and the outbox are started, without the scheduled jobs or the in-memory
+ * structures of the web application.
+ * <p>
+ * With ship.outbox.enabled every imported chunk leaves a fleet change in the outbox, which a running
+ * web application passes on to its caches and indexes. Without it they only see the imported ships
+ * once the web application is restarted.
+ */
+public class ImportShips {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: ImportShips <file.csv|file.ndjson> [profile]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        ShipImportFormat format = file.getFileName().toString().endsWith(ShipImportFormat.CSV.getExtension())
+                ? ShipImportFormat.CSV : ShipImportFormat.NDJSON;
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().setActiveProfiles(args.length > 1 ? args[1] : "prod");
+            context.register(ImportConfig.class);
+            context.refresh();
+
+            ShipImportReport report;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                report = context.getBean(ShipImporter.class)
+                        .importShips(reader, format, context.getBean(ShipValidator.class)::prepareImported);
+            }
+            for (ShipImportReport.Rejection rejection : report.getRejections()) {
+                System.err.println("line " + rejection.getLine() + ": " + rejection.getError());
+            }
+            System.out.println(report.getImported() + " of " + report.getRows() + " ships imported, "
+                    + report.getRejected() + " rejected in " + report.getElapsedMillis() + " ms");
+        }
+    }
+
+    @Configuration
+    @Import({PersistenceConfig.class, ConnectionPoolMetrics.class, PrimitiveRatingCalculator.class, ShipValidator.class,
+            ShipChangeNotifier.class, ShipOutbox.class, ShipImporter.class})
+    public static class ImportConfig {
+    }
+}
@@ -0,0 +1,222 @@
+package com.space.config;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.space.service.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+/**
+ * The database, JPA and transactions, without the scheduled jobs and in-memory structures of the
+ * service layer, so the ImportShips command can start it on its own.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackages = "com.space.repository")
+@PropertySource("classpath:cosmoport.properties")
+@PropertySource("${cosmoport.datasource:classpath:datasource.properties}")
+public class PersistenceConfig {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Bean
+    @DependsOn("flyway")
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+        em.setDataSource(dataSource());
+        em.setPackagesToScan("com.space.model");
+
+        JpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+        em.setJpaVendorAdapter(vendorAdapter);
+        em.setJpaProperties(additionalProperties());
+
+        return em;
+    }
+
+    /**
+     * Applies db/migration before Hibernate starts. A database created by init.sql has no
+     * migration history yet and is baselined at V1, which creates the same table.
+     */
+    @Bean(initMethod = "migrate")
+    public Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource())
+                .baselineOnMigrate(true)
+                .load();
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource() {
+        return new LazyConnectionDataSourceProxy(routingDataSource());
+    }
+
+    @Profile("prod")
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource() {
+        HikariDataSource primary = mysqlPool("cosmoport", environment.getRequiredProperty("db.url"));
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(environment.getProperty("db.replica.urls", ""))) {
+            replicas.add(mysqlPool("cosmoport-replica-" + replicas.size(), url.trim()));
+        }
+        return routing(primary, replicas);
+    }
+
+    @Profile("dev")
+    @Bean(name = "routingDataSource")
+    public ReplicaRoutingDataSource routingDataSourceForTests() {
+        HikariConfig config = poolConfig("cosmoport-dev");
+        config.setDataSource(embeddedDatabase());
+        HikariDataSource primary = new HikariDataSource(config);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        int count = environment.getProperty("db.dev.replicas", Integer.class, 0);
+        for (int i = 0; i < count; i++) {
+            HikariConfig replicaConfig = poolConfig("cosmoport-dev-replica-" + i);
+            replicaConfig.setJdbcUrl("jdbc:h2:mem:cosmoport-replica-" + UUID.randomUUID());
+            HikariDataSource replica = new HikariDataSource(replicaConfig);
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("test.sql"));
+            populator.setSqlScriptEncoding("UTF-8");
+            populator.execute(replica);
+            replicas.add(replica);
+        }
+        return routing(primary, replicas);
+    }
+
+    @Profile("dev")
+    @Bean
+    public EmbeddedDatabase embeddedDatabase() {
+        return new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(H2)
+                .setScriptEncoding("UTF-8")
+                .ignoreFailedDrops(true)
+                .addScript("test.sql")
+                .build();
+    }
+
+    private ReplicaRoutingDataSource routing(HikariDataSource primary, List<HikariDataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas,
+                environment.getRequiredProperty("db.replica.selection", ReplicaRoutingDataSource.Selection.class),
+                environment.getRequiredProperty("db.replica.read-your-writes-window", Long.class));
+    }
+
+    private HikariDataSource mysqlPool(String poolName, String url) {
+        HikariConfig config = poolConfig(poolName);
+        config.setDriverClassName(environment.getRequiredProperty("db.driver-class-name"));
+        config.setJdbcUrl(url);
+        config.setUsername(environment.getRequiredProperty("db.username"));
+        config.setPassword(environment.getRequiredProperty("db.password"));
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", environment.getRequiredProperty("db.pool.prepared-statement-cache-size"));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", environment.getRequiredProperty("db.pool.prepared-statement-cache-sql-limit"));
+        return new HikariDataSource(config);
+    }
+
+    private HikariConfig poolConfig(String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setMinimumIdle(environment.getRequiredProperty("db.pool.minimum-idle", Integer.class));
+        config.setMaximumPoolSize(environment.getRequiredProperty("db.pool.maximum-size", Integer.class));
+        config.setConnectionTimeout(environment.getRequiredProperty("db.pool.connection-timeout", Long.class));
+        config.setIdleTimeout(environment.getRequiredProperty("db.pool.idle-timeout", Long.class));
+        config.setMaxLifetime(environment.getRequiredProperty("db.pool.max-lifetime", Long.class));
+        config.setLeakDetectionThreshold(environment.getRequiredProperty("db.pool.leak-detection-threshold", Long.class));
+        config.setMetricsTrackerFactory(connectionPoolMetrics);
+        return config;
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager();
+        transactionManager.setEntityManagerFactory(emf);
+
+        return transactionManager;
+    }
+
+    /**
+     * Shared by the REST API, the NDJSON import and the outbox, so an imported line reads the same
+     * as a posted ship.
+     */
+    @Bean
+    public ObjectMapper objectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return mapper;
+    }
+
+    @Bean
+    public PersistenceExceptionTranslationPostProcessor exceptionTranslation() {
+        return new PersistenceExceptionTranslationPostProcessor();
+    }
+
+    private Properties additionalProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        // IDENTITY ids keep Hibernate from batching inserts, bulk inserts use JDBC batches instead; this
+        // batches the updates that dirty checking flushes, such as those of the rating recompute
+        properties.setProperty("hibernate.jdbc.batch_size", environment.getProperty("ship.bulk.batch-size"));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        if (environment.getProperty("ship.cache.enabled", Boolean.class, false)) {
+            properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+            properties.setProperty("hibernate.cache.use_query_cache", "true");
+            properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+            properties.setProperty("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.setProperty("hibernate.generate_statistics", "true");
+            properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        } else {
+            properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        }
+
+        return properties;
+    }
+}
\ No newline at end of file
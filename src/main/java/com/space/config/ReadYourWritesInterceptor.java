@@ -0,0 +1,26 @@
+package com.space.config;
+
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Tells the routing DataSource which client a request comes from: the X-Client-Id header when
+ * the client sends one, its address otherwise.
+ */
+public class ReadYourWritesInterceptor extends HandlerInterceptorAdapter {
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = request.getHeader(CLIENT_HEADER);
+        ReplicaRoutingDataSource.bindClient(client != null ? client : request.getRemoteAddr());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.unbindClient();
+    }
+}
@@ -0,0 +1,149 @@
+package com.space.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. A client that
+ * has just committed a write keeps reading from the primary for a while, so it sees its own writes
+ * despite replication lag. Connections have to be taken lazily, after the transaction is marked
+ * read-only, which is why the application uses this behind a LazyConnectionDataSourceProxy.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica-";
+    private static final int MAX_TRACKED_CLIENTS = 10000;
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> READS_FROM_REPLICA = new ThreadLocal<>();
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_BUSY
+    }
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Selection selection;
+    private final long readYourWritesMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile Clock clock = Clock.systemUTC();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    Selection selection, long readYourWritesMillis) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.selection = selection;
+        this.readYourWritesMillis = readYourWritesMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA + i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Binds the client making the current request to this thread, see {@link ReadYourWritesInterceptor}.
+     */
+    public static void bindClient(String client) {
+        CLIENT.set(client);
+        READS_FROM_REPLICA.remove();
+    }
+
+    public static void unbindClient() {
+        CLIENT.remove();
+        READS_FROM_REPLICA.remove();
+    }
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Whether read-only transactions on this thread go to a replica. For a request the answer is
+     * fixed once asked, until the request commits a write, so that a response is cached and tagged
+     * according to where it was actually read from.
+     */
+    public boolean readsFromReplica() {
+        if (replicas.isEmpty()) {
+            return false;
+        }
+        String client = CLIENT.get();
+        if (client == null) {
+            return true;
+        }
+        Boolean replica = READS_FROM_REPLICA.get();
+        if (replica == null) {
+            replica = !wroteRecently(client);
+            READS_FROM_REPLICA.set(replica);
+        }
+        return replica;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String client = CLIENT.get();
+            if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(client);
+                        READS_FROM_REPLICA.set(false);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        return readsFromReplica() ? REPLICA + select() : PRIMARY;
+    }
+
+    private int select() {
+        if (selection == Selection.LEAST_BUSY) {
+            int best = 0;
+            int fewest = Integer.MAX_VALUE;
+            for (int i = 0; i < replicas.size(); i++) {
+                int active = replicas.get(i).getHikariPoolMXBean().getActiveConnections();
+                if (active < fewest) {
+                    best = i;
+                    fewest = active;
+                }
+            }
+            return best;
+        }
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    private void recordWrite(String client) {
+        long now = clock.millis();
+        if (lastWrites.size() >= MAX_TRACKED_CLIENTS) {
+            lastWrites.values().removeIf(time -> now - time >= readYourWritesMillis);
+        }
+        lastWrites.put(client, now);
+    }
+
+    private boolean wroteRecently(String client) {
+        Long lastWrite = lastWrites.get(client);
+        return lastWrite != null && clock.millis() - lastWrite < readYourWritesMillis;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
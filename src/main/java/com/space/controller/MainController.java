@@ -1,26 +1,63 @@
 package com.space.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.exception.BadRequestException;
 import com.space.exception.ShipNotFoundException;
 import com.space.model.Ship;
-import com.space.model.ShipType;
-import com.space.service.MainService;
+import com.space.model.ShipAggregate;
+import com.space.model.ShipBulkResult;
+import com.space.model.ShipFacets;
+import com.space.model.ShipGrouping;
+import com.space.model.ShipHistogram;
+import com.space.model.ShipHistogramField;
+import com.space.model.ShipImportFormat;
+import com.space.model.ShipImportReport;
+import com.space.model.ShipPage;
+import com.space.model.ShipSearchField;
+import com.space.model.ShipSuggestion;
+import com.space.model.ShipVersion;
+import com.space.service.FleetVersion;
+import com.space.service.ShipCursor;
+import com.space.service.ShipFilter;
+import com.space.service.ShipService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping(value = "/rest")
 public class MainController {
-    private MainService service;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    private ShipService service;
+    private FleetVersion fleetVersion;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    public MainController(MainService service) {
+    public MainController(ShipService service, FleetVersion fleetVersion, ObjectMapper objectMapper) {
         this.service = service;
+        this.fleetVersion = fleetVersion;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(value = "/ships")
@@ -29,62 +66,168 @@ public class MainController {
         return service.createShip(ship);
     }
 
+    @PostMapping(value = "/ships/bulk")
+    @ResponseBody
+    public List<ShipBulkResult> addShips(@RequestBody List<Ship> ships) {
+        return service.createShips(ships);
+    }
+
+    @PostMapping(value = "/ships/import", consumes = {CSV, NDJSON})
+    public ShipImportReport importShips(HttpServletRequest request) throws IOException {
+        ShipImportFormat format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType(CSV)) ? ShipImportFormat.CSV : ShipImportFormat.NDJSON;
+        String encoding = request.getCharacterEncoding() != null
+                ? request.getCharacterEncoding() : StandardCharsets.UTF_8.name();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), encoding))) {
+            return service.importShips(reader, format);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     @GetMapping(value = "/ships")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Ship> getAllShips(@RequestParam(value = "name", required = false) String name,
-                                  @RequestParam(value = "planet", required = false) String planet,
-                                  @RequestParam(value = "shipType", required = false) ShipType shipType,
-                                  @RequestParam(value = "after", required = false) Long after,
-                                  @RequestParam(value = "before", required = false) Long before,
-                                  @RequestParam(value = "isUsed", required = false) Boolean isUsed,
-                                  @RequestParam(value = "minSpeed", required = false) Double minSpeed,
-                                  @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
-                                  @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
-                                  @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
-                                  @RequestParam(value = "minRating", required = false) Double minRating,
-                                  @RequestParam(value = "maxRating", required = false) Double maxRating,
-                                  @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
-                                  @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
-                                  @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize) {
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName()));
-
-        return service.gelAllShips(
-                Specification.where(service.filterByName(name)
-                        .and(service.filterByPlanet(planet)))
-                        .and(service.filterByShipType(shipType))
-                        .and(service.filterByDate(after, before))
-                        .and(service.filterByUsage(isUsed))
-                        .and(service.filterBySpeed(minSpeed, maxSpeed))
-                        .and(service.filterByCrewSize(minCrewSize, maxCrewSize))
-                        .and(service.filterByRating(minRating, maxRating)), pageable)
-                .getContent();
+    public List<?> getAllShips(ShipFilter filter,
+                               @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
+                               @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
+                               @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+                               @RequestParam(value = "cursor", required = false) String cursor,
+                               @RequestParam(value = "fields", required = false) List<String> fields,
+                               WebRequest request,
+                               HttpServletResponse response) {
+        if (notModified(request)) {
+            return null;
+        }
+        Specification<Ship> specification = service.filterBy(filter);
+        boolean projected = fields != null && !fields.isEmpty();
+
+        if (cursor != null) {
+            if (projected) {
+                throw new BadRequestException("fields is not supported together with cursor");
+            }
+            ShipCursor from = cursor.isEmpty()
+                    ? ShipCursor.start(order.getFieldName())
+                    : ShipCursor.decode(cursor, order.getFieldName());
+            List<Ship> ships = service.gelShipsAfter(specification, from, pageSize);
+            if (ships.size() == pageSize) {
+                response.setHeader(NEXT_CURSOR_HEADER, ShipCursor.after(order.getFieldName(), ships.get(ships.size() - 1)).encode());
+            }
+            return ships;
+        }
+
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, order.getSort());
+        if (projected) {
+            return service.gelShipFields(specification, fields, pageable);
+        }
+        return service.gelAllShips(filter, pageable).getContent();
+    }
+
+    @GetMapping(value = "/ships/page")
+    public ShipPage getShipPage(ShipFilter filter,
+                                @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
+                                @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
+                                @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+                                WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, order.getSort());
+        Page<Ship> page = service.gelAllShips(filter, pageable);
+
+        return new ShipPage(page.getContent(), page.getTotalElements());
+    }
+
+    @GetMapping(value = "/ships/export", produces = NDJSON)
+    public void exportShips(ShipFilter filter,
+                            @RequestParam(value = "order", required = false, defaultValue = "ID") ShipOrder order,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(new SerializedString(""));
+            service.exportShips(service.filterBy(filter), order.getSort(), ship -> {
+                try {
+                    generator.writeObject(ship);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     @RequestMapping(value = "/ships/count", method = RequestMethod.GET)
+    public Long getCount(ShipFilter filter, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return service.countShips(filter);
+    }
+
+    @GetMapping(value = "/ships/search")
+    public List<Ship> searchShips(@RequestParam(value = "q") String text,
+                                  @RequestParam(value = "field", defaultValue = "NAME") ShipSearchField field,
+                                  @RequestParam(value = "minSimilarity", required = false) Double minSimilarity,
+                                  @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        return service.searchShips(field, text, minSimilarity, limit);
+    }
+
+    @GetMapping(value = "/ships/suggest")
+    public List<ShipSuggestion> suggest(@RequestParam(value = "prefix") String prefix,
+                                        @RequestParam(value = "field", defaultValue = "NAME") ShipSearchField field,
+                                        @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        return service.suggest(field, prefix, limit);
+    }
+
+    @GetMapping(value = "/ships/aggregate")
+    public List<ShipAggregate> getAggregate(ShipFilter filter,
+                                            @RequestParam(value = "groupBy") ShipGrouping groupBy,
+                                            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return service.aggregateShips(service.filterBy(filter), groupBy);
+    }
+
+    @GetMapping(value = "/ships/facets")
+    public ShipFacets getFacets(ShipFilter filter,
+                                @RequestParam(value = "topPlanets", defaultValue = "10") Integer topPlanets,
+                                WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return service.facetShips(filter, topPlanets);
+    }
+
+    @GetMapping(value = "/ships/histogram")
+    public ShipHistogram getHistogram(ShipFilter filter,
+                                      @RequestParam(value = "field") ShipHistogramField field,
+                                      @RequestParam(value = "bucketWidth", required = false) Double bucketWidth,
+                                      @RequestParam(value = "buckets", required = false) Integer buckets,
+                                      WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return service.histogramShips(service.filterBy(filter), field, bucketWidth, buckets);
+    }
+
+    @PostMapping(value = "/ships/bulk-update")
+    @ResponseBody
+    public Integer updateShips(ShipFilter filter, @RequestBody Ship changes) {
+        return service.updateShips(filter, changes);
+    }
+
+    @PostMapping(value = "/ships/ratings/recompute")
     @ResponseStatus(HttpStatus.OK)
-    public Integer getCount(@RequestParam(value = "name", required = false) String name,
-                            @RequestParam(value = "planet", required = false) String planet,
-                            @RequestParam(value = "shipType", required = false) ShipType shipType,
-                            @RequestParam(value = "after", required = false) Long after,
-                            @RequestParam(value = "before", required = false) Long before,
-                            @RequestParam(value = "isUsed", required = false) Boolean isUsed,
-                            @RequestParam(value = "minSpeed", required = false) Double minSpeed,
-                            @RequestParam(value = "maxSpeed", required = false) Double maxSpeed,
-                            @RequestParam(value = "minCrewSize", required = false) Integer minCrewSize,
-                            @RequestParam(value = "maxCrewSize", required = false) Integer maxCrewSize,
-                            @RequestParam(value = "minRating", required = false) Double minRating,
-                            @RequestParam(value = "maxRating", required = false) Double maxRating) {
-
-        return service.gelAllShips(
-                Specification.where(service.filterByName(name)
-                        .and(service.filterByPlanet(planet)))
-                        .and(service.filterByShipType(shipType))
-                        .and(service.filterByDate(after, before))
-                        .and(service.filterByUsage(isUsed))
-                        .and(service.filterBySpeed(minSpeed, maxSpeed))
-                        .and(service.filterByCrewSize(minCrewSize, maxCrewSize))
-                        .and(service.filterByRating(minRating, maxRating)))
-                .size();
+    public Integer recomputeRatings() {
+        return service.recomputeRatings();
+    }
+
+    @DeleteMapping(value = "/ships")
+    @ResponseStatus(HttpStatus.OK)
+    public Integer deleteShips(ShipFilter filter) {
+        return service.deleteShips(filter);
     }
 
     @DeleteMapping(value = "/ships/{id}")
@@ -96,19 +239,39 @@ public class MainController {
     }
 
     @GetMapping(value = "/ships/{id}")
-    @ResponseStatus(HttpStatus.OK)
     @ResponseBody
-    public Ship getShip(@PathVariable(value = "id") String id) throws ShipNotFoundException {
+    public Ship getShip(@PathVariable(value = "id") String id, WebRequest request) throws ShipNotFoundException {
         Long longId = null;
             longId = service.checkAndParseId(id);
-        return service.getShip(longId);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            ShipVersion version = service.getShipVersion(longId);
+            if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+                return null;
+            }
+        }
+        Ship ship = service.getShip(longId);
+        ShipVersion version = ShipVersion.of(ship);
+        request.checkNotModified(version.getETag(), version.getLastModifiedMillis());
+        return ship;
     }
 
     @PostMapping(value = "/ships/{id}")
     @ResponseBody
-    public Ship editShip(@PathVariable(value = "id") String id, @RequestBody Ship ship)  {
+    public Ship editShip(@PathVariable(value = "id") String id, @RequestBody Ship ship,
+                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                         HttpServletResponse response) {
         Long longId = null;
             longId = service.checkAndParseId(id);
-        return service.editShip(longId, ship);
+        Ship edited = service.editShip(longId, ship, ShipVersion.parseIfMatch(ifMatch));
+        response.setHeader(HttpHeaders.ETAG, ShipVersion.of(edited).getETag());
+        return edited;
+    }
+
+    /**
+     * Answers 304 when the client holds the current fleet version. A response read from a replica
+     * is not tagged with the version, since the replica may not have caught up with it yet.
+     */
+    private boolean notModified(WebRequest request) {
+        return fleetVersion.isVisibleToReads() && request.checkNotModified(fleetVersion.getETag());
     }
 }
@@ -1,5 +1,7 @@
 package com.space.controller;
 
+import org.springframework.data.domain.Sort;
+
 public enum ShipOrder {
     ID("id"), // default
     SPEED("speed"),
@@ -15,4 +17,12 @@ public enum ShipOrder {
     public String getFieldName() {
         return fieldName;
     }
+
+    /**
+     * Sort by this order's field with ties broken by id, so that pages do not overlap.
+     */
+    public Sort getSort() {
+        Sort sort = Sort.by(fieldName);
+        return this == ID ? sort : sort.and(Sort.by(ID.fieldName));
+    }
 }
\ No newline at end of file
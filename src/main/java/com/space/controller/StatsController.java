@@ -0,0 +1,52 @@
+package com.space.controller;
+
+import com.space.model.CacheStats;
+import com.space.model.ConnectionPoolStats;
+import com.space.model.IndexAdvice;
+import com.space.model.ResultCacheStats;
+import com.space.service.StatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping(value = "/rest/stats")
+public class StatsController {
+
+    private StatsService statsService;
+
+    @Autowired
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping(value = "/cache")
+    public CacheStats getCacheStats() {
+        return statsService.getCacheStats();
+    }
+
+    @GetMapping(value = "/result-cache")
+    public ResultCacheStats getResultCacheStats() {
+        return statsService.getResultCacheStats();
+    }
+
+    @GetMapping(value = "/pool")
+    public Map<String, ConnectionPoolStats> getPoolStats() {
+        return statsService.getPoolStats();
+    }
+
+    @GetMapping(value = "/indexes")
+    public IndexAdvice getIndexAdvice() {
+        return statsService.getIndexAdvice();
+    }
+
+    @PostMapping(value = "/indexes")
+    public List<String> createSuggestedIndexes() {
+        return statsService.createSuggestedIndexes();
+    }
+}
@@ -0,0 +1,23 @@
+package com.space.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class ShipConflictException extends RuntimeException {
+
+    public ShipConflictException() {
+    }
+
+    public ShipConflictException(String message) {
+        super(message);
+    }
+
+    public ShipConflictException(Throwable cause) {
+        super(cause);
+    }
+
+    public ShipConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
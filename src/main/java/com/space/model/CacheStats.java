@@ -0,0 +1,88 @@
+package com.space.model;
+
+import java.util.Map;
+
+public class CacheStats {
+    private boolean enabled;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long queryHits;
+    private long queryMisses;
+    private long queryPuts;
+    private Map<String, Region> regions;
+
+    public CacheStats(boolean enabled, long hits, long misses, long puts,
+                      long queryHits, long queryMisses, long queryPuts, Map<String, Region> regions) {
+        this.enabled = enabled;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.queryHits = queryHits;
+        this.queryMisses = queryMisses;
+        this.queryPuts = queryPuts;
+        this.regions = regions;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public long getQueryHits() {
+        return queryHits;
+    }
+
+    public long getQueryMisses() {
+        return queryMisses;
+    }
+
+    public long getQueryPuts() {
+        return queryPuts;
+    }
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public static class Region {
+        private long hits;
+        private long misses;
+        private long puts;
+        private long size;
+
+        public Region(long hits, long misses, long puts, long size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getPuts() {
+            return puts;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
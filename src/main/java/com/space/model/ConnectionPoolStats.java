@@ -0,0 +1,75 @@
+package com.space.model;
+
+public class ConnectionPoolStats {
+    private int total;
+    private int active;
+    private int idle;
+    private int pending;
+    private int maxSize;
+    private long acquired;
+    private long timeouts;
+    private double averageWaitMillis;
+    private double p99WaitMillis;
+    private double maxWaitMillis;
+    private double averageUsageMillis;
+
+    public ConnectionPoolStats(int total, int active, int idle, int pending, int maxSize,
+                               long acquired, long timeouts, double averageWaitMillis,
+                               double p99WaitMillis, double maxWaitMillis, double averageUsageMillis) {
+        this.total = total;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.maxSize = maxSize;
+        this.acquired = acquired;
+        this.timeouts = timeouts;
+        this.averageWaitMillis = averageWaitMillis;
+        this.p99WaitMillis = p99WaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.averageUsageMillis = averageUsageMillis;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getAcquired() {
+        return acquired;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public double getP99WaitMillis() {
+        return p99WaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public double getAverageUsageMillis() {
+        return averageUsageMillis;
+    }
+}
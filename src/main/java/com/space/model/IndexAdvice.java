@@ -0,0 +1,94 @@
+package com.space.model;
+
+import java.util.List;
+
+public class IndexAdvice {
+    private List<Pattern> patterns;
+    private List<Suggestion> suggestions;
+
+    public IndexAdvice(List<Pattern> patterns, List<Suggestion> suggestions) {
+        this.patterns = patterns;
+        this.suggestions = suggestions;
+    }
+
+    public List<Pattern> getPatterns() {
+        return patterns;
+    }
+
+    public List<Suggestion> getSuggestions() {
+        return suggestions;
+    }
+
+    public static class Pattern {
+        private List<String> equality;
+        private String sort;
+        private List<String> range;
+        private long calls;
+        private double averageMillis;
+        private double maxMillis;
+
+        public Pattern(List<String> equality, String sort, List<String> range,
+                       long calls, double averageMillis, double maxMillis) {
+            this.equality = equality;
+            this.sort = sort;
+            this.range = range;
+            this.calls = calls;
+            this.averageMillis = averageMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        public List<String> getEquality() {
+            return equality;
+        }
+
+        public String getSort() {
+            return sort;
+        }
+
+        public List<String> getRange() {
+            return range;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public double getAverageMillis() {
+            return averageMillis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+    }
+
+    public static class Suggestion {
+        private String name;
+        private List<String> columns;
+        private String ddl;
+        private long calls;
+
+        public Suggestion(String name, List<String> columns, String ddl, long calls) {
+            this.name = name;
+            this.columns = columns;
+            this.ddl = ddl;
+            this.calls = calls;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        public String getDdl() {
+            return ddl;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+    }
+}
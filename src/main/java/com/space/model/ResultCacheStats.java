@@ -0,0 +1,56 @@
+package com.space.model;
+
+public class ResultCacheStats {
+    private boolean enabled;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private long size;
+    private long estimatedBytes;
+    private long maxBytes;
+
+    public ResultCacheStats(boolean enabled, long hits, long misses, double hitRatio,
+                            long evictions, long size, long estimatedBytes, long maxBytes) {
+        this.enabled = enabled;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRatio = hitRatio;
+        this.evictions = evictions;
+        this.size = size;
+        this.estimatedBytes = estimatedBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -1,9 +1,19 @@
 package com.space.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Where;
+
 import javax.persistence.*;
 import java.util.Date;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ship")
+@DynamicUpdate
+@Where(clause = "deletedAt IS NULL")
 @Table(name = "ship")
 public class Ship {
     @Id
@@ -27,6 +37,22 @@ public class Ship {
     private Integer crewSize;
     @Column(name = "rating")
     private Double rating;
+    @Version
+    @Column(name = "version")
+    @JsonIgnore
+    private Long version;
+    @Column(name = "lastModified")
+    @JsonIgnore
+    private Date lastModified;
+    @Column(name = "deletedAt")
+    @JsonIgnore
+    private Date deletedAt;
+
+    @PrePersist
+    @PreUpdate
+    private void touch() {
+        lastModified = new Date();
+    }
 
     public Long getId() {
         return id;
@@ -100,4 +126,15 @@ public class Ship {
         this.rating = rating;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
 }
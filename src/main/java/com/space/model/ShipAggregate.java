@@ -0,0 +1,71 @@
+package com.space.model;
+
+public class ShipAggregate {
+    private Object group;
+    private long count;
+    private Statistics speed;
+    private Statistics rating;
+    private Statistics crewSize;
+
+    public ShipAggregate(Object group, long count, Statistics speed, Statistics rating, Statistics crewSize) {
+        this.group = group;
+        this.count = count;
+        this.speed = speed;
+        this.rating = rating;
+        this.crewSize = crewSize;
+    }
+
+    public Object getGroup() {
+        return group;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Statistics getSpeed() {
+        return speed;
+    }
+
+    public Statistics getRating() {
+        return rating;
+    }
+
+    public Statistics getCrewSize() {
+        return crewSize;
+    }
+
+    public static class Statistics {
+        private Double min;
+        private Double max;
+        private Double avg;
+        private Double sum;
+
+        public Statistics(Number min, Number max, Number avg, Number sum) {
+            this.min = toDouble(min);
+            this.max = toDouble(max);
+            this.avg = toDouble(avg);
+            this.sum = toDouble(sum);
+        }
+
+        private static Double toDouble(Number number) {
+            return number == null ? null : number.doubleValue();
+        }
+
+        public Double getMin() {
+            return min;
+        }
+
+        public Double getMax() {
+            return max;
+        }
+
+        public Double getAvg() {
+            return avg;
+        }
+
+        public Double getSum() {
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.space.model;
+
+public class ShipBulkResult {
+    private int index;
+    private Long id;
+    private String error;
+
+    private ShipBulkResult(int index, Long id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static ShipBulkResult created(int index, Ship ship) {
+        return new ShipBulkResult(index, ship.getId(), null);
+    }
+
+    public static ShipBulkResult rejected(int index, String error) {
+        return new ShipBulkResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
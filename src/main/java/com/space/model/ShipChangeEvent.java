@@ -0,0 +1,54 @@
+package com.space.model;
+
+import java.util.Date;
+
+public class ShipChangeEvent {
+    private long id;
+    private ShipChangeType type;
+    private Long shipId;
+    private Ship ship;
+    private String origin;
+    private Date createdAt;
+
+    public ShipChangeEvent(long id, ShipChangeType type, Long shipId, Ship ship, String origin, Date createdAt) {
+        this.id = id;
+        this.type = type;
+        this.shipId = shipId;
+        this.ship = ship;
+        this.origin = origin;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public ShipChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Null for FLEET_CHANGED.
+     */
+    public Long getShipId() {
+        return shipId;
+    }
+
+    /**
+     * The ship as committed, null for DELETED and FLEET_CHANGED.
+     */
+    public Ship getShip() {
+        return ship;
+    }
+
+    /**
+     * Id of the process that wrote the event, see ShipOutbox.getOrigin.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+}
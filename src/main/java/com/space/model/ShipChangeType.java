@@ -0,0 +1,8 @@
+package com.space.model;
+
+public enum ShipChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    FLEET_CHANGED
+}
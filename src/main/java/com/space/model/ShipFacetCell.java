@@ -0,0 +1,37 @@
+package com.space.model;
+
+public class ShipFacetCell {
+    private String planet;
+    private ShipType shipType;
+    private Boolean isUsed;
+    private boolean planetMatch;
+    private long count;
+
+    public ShipFacetCell(String planet, ShipType shipType, Boolean isUsed, boolean planetMatch, long count) {
+        this.planet = planet;
+        this.shipType = shipType;
+        this.isUsed = isUsed;
+        this.planetMatch = planetMatch;
+        this.count = count;
+    }
+
+    public String getPlanet() {
+        return planet;
+    }
+
+    public ShipType getShipType() {
+        return shipType;
+    }
+
+    public Boolean getIsUsed() {
+        return isUsed;
+    }
+
+    public boolean isPlanetMatch() {
+        return planetMatch;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
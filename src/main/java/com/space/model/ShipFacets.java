@@ -0,0 +1,33 @@
+package com.space.model;
+
+import java.util.Map;
+
+public class ShipFacets {
+    private long count;
+    private Map<ShipType, Long> shipType;
+    private Map<Boolean, Long> isUsed;
+    private Map<String, Long> planet;
+
+    public ShipFacets(long count, Map<ShipType, Long> shipType, Map<Boolean, Long> isUsed, Map<String, Long> planet) {
+        this.count = count;
+        this.shipType = shipType;
+        this.isUsed = isUsed;
+        this.planet = planet;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Map<ShipType, Long> getShipType() {
+        return shipType;
+    }
+
+    public Map<Boolean, Long> getIsUsed() {
+        return isUsed;
+    }
+
+    public Map<String, Long> getPlanet() {
+        return planet;
+    }
+}
@@ -0,0 +1,8 @@
+package com.space.model;
+
+public enum ShipGrouping {
+    PLANET,
+    SHIP_TYPE,
+    IS_USED,
+    YEAR
+}
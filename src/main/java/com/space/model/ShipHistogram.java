@@ -0,0 +1,51 @@
+package com.space.model;
+
+import java.util.List;
+
+public class ShipHistogram {
+    private ShipHistogramField field;
+    private double bucketWidth;
+    private List<Bucket> buckets;
+
+    public ShipHistogram(ShipHistogramField field, double bucketWidth, List<Bucket> buckets) {
+        this.field = field;
+        this.bucketWidth = bucketWidth;
+        this.buckets = buckets;
+    }
+
+    public ShipHistogramField getField() {
+        return field;
+    }
+
+    public double getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public static class Bucket {
+        private double from;
+        private double to;
+        private long count;
+
+        public Bucket(double from, double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public double getFrom() {
+            return from;
+        }
+
+        public double getTo() {
+            return to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.space.model;
+
+public enum ShipHistogramField {
+    SPEED(false),
+    RATING(false),
+    CREW_SIZE(true),
+    PROD_YEAR(true);
+
+    private final boolean discrete;
+
+    ShipHistogramField(boolean discrete) {
+        this.discrete = discrete;
+    }
+
+    public boolean isDiscrete() {
+        return discrete;
+    }
+}
@@ -0,0 +1,16 @@
+package com.space.model;
+
+public enum ShipImportFormat {
+    CSV(".csv"),
+    NDJSON(".ndjson");
+
+    private final String extension;
+
+    ShipImportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
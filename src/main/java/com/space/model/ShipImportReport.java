@@ -0,0 +1,57 @@
+package com.space.model;
+
+import java.util.List;
+
+public class ShipImportReport {
+    private long rows;
+    private long imported;
+    private long rejected;
+    private List<Rejection> rejections;
+    private long elapsedMillis;
+
+    public ShipImportReport(long rows, long imported, long rejected, List<Rejection> rejections, long elapsedMillis) {
+        this.rows = rows;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejections = rejections;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public static class Rejection {
+        private long line;
+        private String error;
+
+        public Rejection(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
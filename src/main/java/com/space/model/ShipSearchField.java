@@ -0,0 +1,6 @@
+package com.space.model;
+
+public enum ShipSearchField {
+    NAME,
+    PLANET
+}
@@ -0,0 +1,19 @@
+package com.space.model;
+
+public class ShipSuggestion {
+    private String value;
+    private int count;
+
+    public ShipSuggestion(String value, int count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
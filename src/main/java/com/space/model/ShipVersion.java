@@ -0,0 +1,54 @@
+package com.space.model;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ShipVersion {
+    private static final Pattern ENTITY_TAG = Pattern.compile("(W/)?\"([^\"]*)\"");
+
+    private Long version;
+    private Date lastModified;
+
+    public ShipVersion(Long version, Date lastModified) {
+        this.version = version;
+        this.lastModified = lastModified;
+    }
+
+    public static ShipVersion of(Ship ship) {
+        return new ShipVersion(ship.getVersion(), ship.getLastModified());
+    }
+
+    public String getETag() {
+        return "\"" + version + "\"";
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.getTime();
+    }
+
+    /**
+     * Reads an If-Match header as RFC 7232 defines it: either {@code *} or a comma separated list
+     * of entity tags, compared strongly, so weak tags and tags of no version match nothing.
+     *
+     * @return the versions the header accepts, null when it accepts any version
+     */
+    public static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*"))
+            return null;
+        Set<Long> versions = new HashSet<>();
+        Matcher matcher = ENTITY_TAG.matcher(ifMatch);
+        while (matcher.find()) {
+            if (matcher.group(1) != null)
+                continue;
+            try {
+                versions.add(Long.valueOf(matcher.group(2)));
+            } catch (NumberFormatException e) {
+                // not one of our tags
+            }
+        }
+        return versions;
+    }
+}
@@ -1,10 +1,53 @@
 package com.space.repository;
 
 import com.space.model.Ship;
+import com.space.model.ShipVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 @Repository
-public interface ShipRepository extends JpaRepository<Ship, Long>, JpaSpecificationExecutor<Ship> {
+public interface ShipRepository extends JpaRepository<Ship, Long>, JpaSpecificationExecutor<Ship>, ShipRepositoryCustom {
+
+    @Override
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    List<Ship> findAll(@Nullable Specification<Ship> specification);
+
+    @Override
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    Page<Ship> findAll(@Nullable Specification<Ship> specification, Pageable pageable);
+
+    @Query("select new com.space.model.ShipVersion(s.version, s.lastModified) from Ship s where s.id = :id")
+    Optional<ShipVersion> findVersionById(@Param("id") Long id);
+
+    List<Ship> findByIdBetween(Long fromId, Long toId);
+
+    @Query("select s.id, s.name, s.planet from Ship s")
+    List<Object[]> findSearchableFields();
+
+    @Query("select min(s.id) from Ship s")
+    Long findMinId();
+
+    @Query("select max(s.id) from Ship s")
+    Long findMaxId();
+
+    @Modifying
+    @Query("update Ship s set s.deletedAt = :deletedAt, s.version = s.version + 1, s.lastModified = :deletedAt " +
+            "where s.id = :id and s.deletedAt is null")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") Date deletedAt);
 }
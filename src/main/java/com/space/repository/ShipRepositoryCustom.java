@@ -0,0 +1,78 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipAggregate;
+import com.space.model.ShipFacetCell;
+import com.space.model.ShipGrouping;
+import com.space.model.ShipHistogramField;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.Tuple;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface ShipRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} ships matching the specification in the given order.
+     * Unlike {@code findAll(Specification, Pageable)} no OFFSET and no count query are issued.
+     */
+    List<Ship> findLimited(Specification<Ship> specification, Sort sort, int limit);
+
+    /**
+     * Replaces JpaSpecificationExecutor.count, whose count query does not take query hints,
+     * so that counts can be served from the query cache.
+     */
+    long count(Specification<Ship> specification);
+
+    /**
+     * Selects only the given attributes of matching ships, aliased by attribute name,
+     * without creating managed entities.
+     */
+    List<Tuple> findFields(Specification<Ship> specification, List<String> fields, Pageable pageable);
+
+    /**
+     * Count, min, max, avg and sum of speed, rating and crewSize per group in one GROUP BY query.
+     */
+    List<ShipAggregate> aggregate(Specification<Ship> specification, ShipGrouping grouping);
+
+    /**
+     * Ship counts per (planet, shipType, isUsed) cell over the given specification, each cell flagged
+     * with whether its planet satisfies the planet specification.
+     */
+    List<ShipFacetCell> countFacetCells(Specification<Ship> specification, Specification<Ship> planetSpecification);
+
+    ShipAggregate.Statistics summarize(Specification<Ship> specification, ShipHistogramField field);
+
+    /**
+     * Ship counts keyed by bucket index floor((value - origin) / width), empty buckets omitted.
+     */
+    Map<Integer, Long> countBuckets(Specification<Ship> specification, ShipHistogramField field, double origin, double width);
+
+    /**
+     * Streams ships matching the specification with a JDBC fetch size, detaching each one
+     * from the persistence context as it is read. Must be consumed inside a transaction and closed.
+     */
+    Stream<Ship> streamAll(Specification<Ship> specification, Sort sort);
+
+    /**
+     * Inserts ships with plain JDBC batches of {@code batchSize} rows and sets the generated ids.
+     * Hibernate cannot batch inserts of IDENTITY entities, so this bypasses the persistence context.
+     */
+    void insertAll(List<Ship> ships, int batchSize);
+
+    /**
+     * Sets every non-null field of {@code changes} on all ships matching the specification in one
+     * UPDATE statement. Rating is recomputed in SQL when speed, isUsed or prodDate change.
+     */
+    int updateAll(Specification<Ship> specification, Ship changes, int referenceYear);
+
+    /**
+     * Tombstones all ships matching the specification by setting deletedAt, the rows stay until
+     * the archive purger moves them out of the table.
+     */
+    int deleteAll(Specification<Ship> specification);
+}
@@ -0,0 +1,371 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipAggregate;
+import com.space.model.ShipFacetCell;
+import com.space.model.ShipGrouping;
+import com.space.model.ShipHistogramField;
+import com.space.model.ShipType;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class ShipRepositoryImpl implements ShipRepositoryCustom {
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final String[] AGGREGATED_FIELDS = {"speed", "rating", "crewSize"};
+    private static final String INSERT_SHIP = "INSERT INTO ship(name, planet, shipType, prodDate, isUsed, speed, crewSize, rating, version, lastModified) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long count(Specification<Ship> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ship> root = query.from(Ship.class);
+        query.select(cb.count(root));
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query)
+                .setHint(CACHEABLE, true)
+                .getSingleResult();
+    }
+
+    @Override
+    public List<Ship> findLimited(Specification<Ship> specification, Sort sort, int limit) {
+        return entityManager.createQuery(selectShips(specification, sort))
+                .setMaxResults(limit)
+                .setHint(CACHEABLE, true)
+                .getResultList();
+    }
+
+    @Override
+    public List<Tuple> findFields(Specification<Ship> specification, List<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ship> root = query.from(Ship.class);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<ShipAggregate> aggregate(Specification<Ship> specification, ShipGrouping grouping) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ship> root = query.from(Ship.class);
+        Expression<?> group = groupExpression(cb, root, grouping);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(group);
+        selections.add(cb.count(root));
+        for (String field : AGGREGATED_FIELDS) {
+            Expression<Number> path = root.get(field);
+            selections.add(cb.min(path));
+            selections.add(cb.max(path));
+            selections.add(cb.avg(path));
+            selections.add(cb.sum(path));
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(group);
+        query.orderBy(cb.asc(group));
+
+        List<ShipAggregate> aggregates = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            aggregates.add(new ShipAggregate(tuple.get(0), tuple.get(1, Long.class),
+                    statisticsAt(tuple, 2), statisticsAt(tuple, 6), statisticsAt(tuple, 10)));
+        }
+        return aggregates;
+    }
+
+    private static ShipAggregate.Statistics statisticsAt(Tuple tuple, int offset) {
+        return new ShipAggregate.Statistics((Number) tuple.get(offset), (Number) tuple.get(offset + 1),
+                (Number) tuple.get(offset + 2), (Number) tuple.get(offset + 3));
+    }
+
+    private static Expression<?> groupExpression(CriteriaBuilder cb, Root<Ship> root, ShipGrouping grouping) {
+        switch (grouping) {
+            case PLANET:
+                return root.get("planet");
+            case SHIP_TYPE:
+                return root.get("shipType");
+            case IS_USED:
+                return root.get("isUsed");
+            default:
+                return cb.function("year", Integer.class, root.get("prodDate"));
+        }
+    }
+
+    @Override
+    public List<ShipFacetCell> countFacetCells(Specification<Ship> specification, Specification<Ship> planetSpecification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ship> root = query.from(Ship.class);
+        Predicate planetPredicate = planetSpecification == null ? null : planetSpecification.toPredicate(root, query, cb);
+        Expression<Integer> planetMatch = cb.<Integer>selectCase()
+                .when(planetPredicate == null ? cb.conjunction() : planetPredicate, 1)
+                .otherwise(0);
+        query.multiselect(root.get("planet"), root.get("shipType"), root.get("isUsed"),
+                cb.max(planetMatch), cb.count(root));
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get("planet"), root.get("shipType"), root.get("isUsed"));
+
+        List<ShipFacetCell> cells = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            cells.add(new ShipFacetCell(tuple.get(0, String.class), tuple.get(1, ShipType.class),
+                    tuple.get(2, Boolean.class), ((Number) tuple.get(3)).intValue() == 1,
+                    tuple.get(4, Long.class)));
+        }
+        return cells;
+    }
+
+    @Override
+    public ShipAggregate.Statistics summarize(Specification<Ship> specification, ShipHistogramField field) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ship> root = query.from(Ship.class);
+        Expression<Number> value = histogramExpression(cb, root, field);
+        query.multiselect(cb.min(value), cb.max(value), cb.avg(value), cb.sum(value));
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return statisticsAt(entityManager.createQuery(query).getSingleResult(), 0);
+    }
+
+    @Override
+    public Map<Integer, Long> countBuckets(Specification<Ship> specification, ShipHistogramField field,
+                                           double origin, double width) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ship> root = query.from(Ship.class);
+        Expression<Integer> bucket = cb.function("floor", Integer.class,
+                cb.quot(cb.diff(histogramExpression(cb, root, field), origin), width));
+        query.multiselect(bucket, cb.count(root));
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(bucket);
+
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            counts.put(((Number) tuple.get(0)).intValue(), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    private static Expression<Number> histogramExpression(CriteriaBuilder cb, Root<Ship> root, ShipHistogramField field) {
+        switch (field) {
+            case SPEED:
+                return root.get("speed");
+            case RATING:
+                return root.get("rating");
+            case CREW_SIZE:
+                return root.get("crewSize");
+            default:
+                return cb.function("year", Number.class, root.get("prodDate"));
+        }
+    }
+
+    @Override
+    public Stream<Ship> streamAll(Specification<Ship> specification, Sort sort) {
+        return entityManager.createQuery(selectShips(specification, sort))
+                .setHint(FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(READ_ONLY, true)
+                .getResultStream()
+                .map(ship -> {
+                    entityManager.detach(ship);
+                    return ship;
+                });
+    }
+
+    @Override
+    public void insertAll(List<Ship> ships, int batchSize) {
+        TimeZone jdbcTimeZone = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcTimeZone();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SHIP, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < ships.size(); from += batchSize) {
+                    List<Ship> batch = ships.subList(from, Math.min(from + batchSize, ships.size()));
+                    for (Ship ship : batch) {
+                        bindShip(statement, ship, jdbcTimeZone);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (int i = 0; i < batch.size() && keys.next(); i++) {
+                            batch.get(i).setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int updateAll(Specification<Ship> specification, Ship changes, int referenceYear) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ship> update = cb.createCriteriaUpdate(Ship.class);
+        Root<Ship> root = update.from(Ship.class);
+        if (changes.getName() != null)
+            update.set(root.get("name"), changes.getName());
+        if (changes.getPlanet() != null)
+            update.set(root.get("planet"), changes.getPlanet());
+        if (changes.getShipType() != null)
+            update.set(root.get("shipType"), changes.getShipType());
+        if (changes.getProdDate() != null)
+            update.set(root.get("prodDate"), changes.getProdDate());
+        if (changes.getUsed() != null)
+            update.set(root.get("isUsed"), changes.getUsed());
+        if (changes.getSpeed() != null)
+            update.set(root.get("speed"), changes.getSpeed());
+        if (changes.getCrewSize() != null)
+            update.set(root.get("crewSize"), changes.getCrewSize());
+        if (changes.getSpeed() != null || changes.getUsed() != null || changes.getProdDate() != null)
+            update.set(root.<Double>get("rating"), ratingExpression(cb, root, changes, referenceYear));
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.set(root.get("lastModified"), new Date());
+
+        return entityManager.createQuery(update.where(liveShips(specification, root, cb))).executeUpdate();
+    }
+
+    @Override
+    public int deleteAll(Specification<Ship> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ship> delete = cb.createCriteriaUpdate(Ship.class);
+        Root<Ship> root = delete.from(Ship.class);
+        Date now = new Date();
+        delete.set(root.get("deletedAt"), now);
+        delete.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        delete.set(root.get("lastModified"), now);
+        return entityManager.createQuery(delete.where(liveShips(specification, root, cb))).executeUpdate();
+    }
+
+    /**
+     * Hibernate applies the @Where of Ship to queries but not to bulk updates, so these exclude
+     * tombstoned ships themselves.
+     */
+    private static Predicate liveShips(Specification<Ship> specification, Root<Ship> root, CriteriaBuilder cb) {
+        Predicate live = cb.isNull(root.get("deletedAt"));
+        Predicate predicate = specification.toPredicate(root, null, cb);
+        return predicate == null ? live : cb.and(predicate, live);
+    }
+
+    /**
+     * SQL form of RatingCalculator: round(80 * speed * k / (referenceYear - year + 1), 2),
+     * where new values from {@code changes} replace the stored columns.
+     */
+    private static Expression<Double> ratingExpression(CriteriaBuilder cb, Root<Ship> root, Ship changes, int referenceYear) {
+        Expression<Double> speed = changes.getSpeed() != null
+                ? cb.literal(changes.getSpeed())
+                : root.get("speed");
+        Expression<Double> usedFactor = changes.getUsed() != null
+                ? cb.literal(changes.getUsed() ? 0.5 : 1.0)
+                : cb.<Double>selectCase().when(cb.isTrue(root.get("isUsed")), 0.5).otherwise(1.0);
+        Expression<Integer> year = changes.getProdDate() != null
+                ? cb.literal(yearOf(changes.getProdDate()))
+                : cb.function("year", Integer.class, root.get("prodDate"));
+        Expression<Number> rating = cb.quot(cb.prod(cb.prod(cb.literal(80.0), speed), usedFactor),
+                cb.diff(referenceYear + 1, year));
+        return cb.function("round", Double.class, rating, cb.literal(2));
+    }
+
+    private static int yearOf(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR);
+    }
+
+    /**
+     * Binds the ship as Hibernate binds the entity. prodDate has no @Temporal, so it is a
+     * timestamp converted through hibernate.jdbc.time_zone when that is set, and the database
+     * truncates it to the date column as it does for ships saved through JPA.
+     */
+    private static void bindShip(PreparedStatement statement, Ship ship, TimeZone jdbcTimeZone) throws SQLException {
+        statement.setString(1, ship.getName());
+        statement.setString(2, ship.getPlanet());
+        statement.setString(3, ship.getShipType() == null ? null : ship.getShipType().name());
+        Timestamp prodDate = new Timestamp(ship.getProdDate().getTime());
+        if (jdbcTimeZone != null) {
+            statement.setTimestamp(4, prodDate, Calendar.getInstance(jdbcTimeZone));
+        } else {
+            statement.setTimestamp(4, prodDate);
+        }
+        statement.setBoolean(5, ship.getUsed());
+        statement.setDouble(6, ship.getSpeed());
+        statement.setInt(7, ship.getCrewSize());
+        statement.setDouble(8, ship.getRating());
+        statement.setTimestamp(9, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private CriteriaQuery<Ship> selectShips(Specification<Ship> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = cb.createQuery(Ship.class);
+        Root<Ship> root = query.from(Ship.class);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, cb));
+        return query;
+    }
+}
@@ -0,0 +1,102 @@
+package com.space.service;
+
+import com.space.model.ConnectionPoolStats;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects how long requests wait for a pooled connection and how long they hold it. Waits are
+ * also counted in power-of-two buckets, which is enough to tell the p99 wait within a factor of two.
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        Tracker tracker = new Tracker(poolStats);
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    public Map<String, ConnectionPoolStats> getStats() {
+        Map<String, ConnectionPoolStats> stats = new TreeMap<>();
+        trackers.forEach((name, tracker) -> stats.put(name, tracker.stats()));
+        return stats;
+    }
+
+    private static class Tracker implements IMetricsTracker {
+        private final PoolStats poolStats;
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLongArray waitBuckets = new AtomicLongArray(Long.SIZE);
+        private final LongAdder released = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        private Tracker(PoolStats poolStats) {
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            waitBuckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(elapsedAcquiredNanos));
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            released.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        private ConnectionPoolStats stats() {
+            long acquiredCount = acquired.sum();
+            long releasedCount = released.sum();
+            return new ConnectionPoolStats(poolStats.getTotalConnections(), poolStats.getActiveConnections(),
+                    poolStats.getIdleConnections(), poolStats.getPendingThreads(), poolStats.getMaxConnections(),
+                    acquiredCount, timeouts.sum(),
+                    acquiredCount == 0 ? 0 : millis(waitNanos.sum() / acquiredCount),
+                    millis(waitPercentileNanos(acquiredCount, 0.99)),
+                    millis(maxWaitNanos.get()),
+                    releasedCount == 0 ? 0 : (double) usageMillis.sum() / releasedCount);
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile of waits.
+         */
+        private long waitPercentileNanos(long count, double percentile) {
+            long rank = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int bucket = 0; bucket < waitBuckets.length(); bucket++) {
+                seen += waitBuckets.get(bucket);
+                if (seen >= rank && seen > 0) {
+                    return bucket == 0 ? 0 : Math.min(maxWaitNanos.get(), (1L << bucket) - 1);
+                }
+            }
+            return maxWaitNanos.get();
+        }
+
+        private static double millis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.space.service;
+
+import com.space.exception.BadRequestException;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads a ship from a CSV row whose columns are named by the header row, in any order. Fields
+ * may be quoted with doubled quotes inside, but a row has to fit on one line. prodDate is
+ * either epoch milliseconds, as in JSON, or a yyyy-MM-dd date.
+ */
+class CsvShipParser implements Function<String, Ship> {
+    private static final List<String> COLUMNS = Arrays.asList(
+            "name", "planet", "shipType", "prodDate", "isUsed", "speed", "crewSize");
+    private static final String OPTIONAL_COLUMN = "isUsed";
+
+    private final int[] positions = new int[COLUMNS.size()];
+
+    CsvShipParser(String header) {
+        if (header == null) {
+            throw new BadRequestException("CSV header is missing");
+        }
+        Arrays.fill(positions, -1);
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            int column = COLUMNS.indexOf(names.get(i).trim());
+            if (column < 0) {
+                throw new BadRequestException("Unknown CSV column " + names.get(i));
+            }
+            positions[column] = i;
+        }
+        for (int column = 0; column < COLUMNS.size(); column++) {
+            if (positions[column] < 0 && !COLUMNS.get(column).equals(OPTIONAL_COLUMN)) {
+                throw new BadRequestException("CSV column " + COLUMNS.get(column) + " is missing");
+            }
+        }
+    }
+
+    @Override
+    public Ship apply(String line) {
+        List<String> fields = split(line);
+        Ship ship = new Ship();
+        ship.setName(field(fields, 0));
+        ship.setPlanet(field(fields, 1));
+        String shipType = field(fields, 2);
+        if (shipType != null) {
+            try {
+                ship.setShipType(ShipType.valueOf(shipType));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Ship type is incorrect");
+            }
+        }
+        String prodDate = field(fields, 3);
+        if (prodDate != null) {
+            ship.setProdDate(parseDate(prodDate));
+        }
+        String isUsed = field(fields, 4);
+        if (isUsed != null) {
+            if (!isUsed.equalsIgnoreCase("true") && !isUsed.equalsIgnoreCase("false")) {
+                throw new BadRequestException("isUsed is invalid");
+            }
+            ship.setUsed(Boolean.valueOf(isUsed));
+        }
+        String speed = field(fields, 5);
+        String crewSize = field(fields, 6);
+        try {
+            ship.setSpeed(speed == null ? null : Double.valueOf(speed));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Speed is invalid");
+        }
+        try {
+            ship.setCrewSize(crewSize == null ? null : Integer.valueOf(crewSize));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Crew size is invalid");
+        }
+        return ship;
+    }
+
+    private String field(List<String> fields, int column) {
+        int position = positions[column];
+        if (position < 0) {
+            return null;
+        }
+        if (position >= fields.size()) {
+            throw new BadRequestException("Row has fewer fields than the header");
+        }
+        String value = fields.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Date parseDate(String value) {
+        try {
+            if (value.indexOf('-', 1) < 0) {
+                return new Date(Long.parseLong(value));
+            }
+            return Date.from(LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BadRequestException("Production date is invalid");
+        }
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BadRequestException("Unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
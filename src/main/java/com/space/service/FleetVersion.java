@@ -0,0 +1,56 @@
+package com.space.service;
+
+import com.space.config.ReplicaRoutingDataSource;
+import com.space.model.Ship;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fleet-wide change counter. Every committed write bumps it, so a list response tagged
+ * with the current value stays valid until the next write. The counter follows the primary,
+ * so results read from a replica must not be tagged or cached with it.
+ */
+@Component
+public class FleetVersion implements ShipChangeListener {
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong counter = new AtomicLong();
+    private final ReplicaRoutingDataSource routing;
+
+    @Autowired
+    public FleetVersion(ReplicaRoutingDataSource routing) {
+        this.routing = routing;
+    }
+
+    /**
+     * Whether reads made for the current request see every write counted so far, which a
+     * lagging replica does not promise.
+     */
+    public boolean isVisibleToReads() {
+        return !routing.readsFromReplica();
+    }
+
+    public long current() {
+        return counter.get();
+    }
+
+    public String getETag() {
+        return "\"fleet-" + epoch + "-" + counter.get() + "\"";
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        counter.incrementAndGet();
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        counter.incrementAndGet();
+    }
+
+    @Override
+    public void fleetChanged() {
+        counter.incrementAndGet();
+    }
+}
@@ -0,0 +1,202 @@
+package com.space.service;
+
+import com.space.exception.BadRequestException;
+import com.space.model.IndexAdvice;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the shape of every list and count query sent to the database: which columns are
+ * filtered by equality, which by range and which one the result is sorted by, and how long it
+ * took. Results served by the result cache or the column store are not recorded. Frequent slow
+ * shapes that no existing index serves get an index suggestion: the equality columns, then the
+ * sort column or else one range column.
+ */
+@Component
+public class IndexAdvisor {
+    private static final String TABLE = "ship";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    @Value("${ship.index-advisor.min-calls}")
+    private long minCalls;
+
+    @Value("${ship.index-advisor.slow-millis}")
+    private double slowMillis;
+
+    @Value("${ship.index-advisor.create-enabled}")
+    private boolean createEnabled;
+
+    @Autowired
+    public IndexAdvisor(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void record(ShipFilter filter, Sort sort, long elapsedNanos) {
+        List<String> equality = new ArrayList<>();
+        if (filter.getShipType() != null)
+            equality.add("shipType");
+        if (filter.getIsUsed() != null)
+            equality.add("isUsed");
+
+        List<String> range = new ArrayList<>();
+        if (filter.getAfter() != null || filter.getBefore() != null)
+            range.add("prodDate");
+        if (filter.getMinSpeed() != null || filter.getMaxSpeed() != null)
+            range.add("speed");
+        if (filter.getMinCrewSize() != null || filter.getMaxCrewSize() != null)
+            range.add("crewSize");
+        if (filter.getMinRating() != null || filter.getMaxRating() != null)
+            range.add("rating");
+
+        // rows are stored in id order, sorting by it needs no index
+        String sortColumn = sort == null ? null : sort.stream()
+                .map(Sort.Order::getProperty)
+                .filter(property -> !property.equals("id"))
+                .findFirst().orElse(null);
+
+        String key = equality + "|" + sortColumn + "|" + range;
+        shapes.computeIfAbsent(key, k -> new Shape(equality, sortColumn, range)).add(elapsedNanos);
+    }
+
+    public IndexAdvice advise() {
+        List<List<String>> existing = existingIndexes();
+        List<IndexAdvice.Pattern> patterns = new ArrayList<>();
+        Map<List<String>, Long> wanted = new LinkedHashMap<>();
+        for (Shape shape : shapes.values()) {
+            long calls = shape.calls.sum();
+            double averageMillis = millis(shape.totalNanos.sum()) / calls;
+            patterns.add(new IndexAdvice.Pattern(shape.equality, shape.sort, shape.range,
+                    calls, averageMillis, millis(shape.maxNanos.get())));
+
+            List<String> columns = shape.indexColumns();
+            if (calls >= minCalls && averageMillis >= slowMillis && !columns.isEmpty() && !covered(existing, columns)) {
+                wanted.merge(columns, calls, Long::sum);
+            }
+        }
+        patterns.sort(Comparator.comparingLong(IndexAdvice.Pattern::getCalls).reversed());
+
+        List<IndexAdvice.Suggestion> suggestions = new ArrayList<>();
+        wanted.forEach((columns, calls) -> {
+            String name = "idx_ship_" + String.join("_", columns).toLowerCase(Locale.ROOT);
+            String ddl = "CREATE INDEX " + name + " ON " + TABLE + " (" + String.join(", ", columns) + ")";
+            suggestions.add(new IndexAdvice.Suggestion(name, columns, ddl, calls));
+        });
+        suggestions.sort(Comparator.comparingLong(IndexAdvice.Suggestion::getCalls).reversed());
+        return new IndexAdvice(patterns, suggestions);
+    }
+
+    /**
+     * Creates every suggested index on the primary. Off unless ship.index-advisor.create-enabled
+     * is set, as building an index locks or slows writes on a large table.
+     */
+    public List<String> createSuggested() {
+        if (!createEnabled) {
+            throw new BadRequestException("Index creation is disabled");
+        }
+        List<String> created = new ArrayList<>();
+        for (IndexAdvice.Suggestion suggestion : advise().getSuggestions()) {
+            jdbcTemplate.execute(suggestion.getDdl());
+            created.add(suggestion.getName());
+        }
+        return created;
+    }
+
+    private static boolean covered(List<List<String>> existing, List<String> columns) {
+        List<String> wanted = new ArrayList<>();
+        columns.forEach(column -> wanted.add(column.toLowerCase(Locale.ROOT)));
+        for (List<String> index : existing) {
+            if (index.size() >= wanted.size() && index.subList(0, wanted.size()).equals(wanted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Column lists of the indexes on the ship table, lower-cased as databases differ in the
+     * case they report identifiers in.
+     */
+    private List<List<String>> existingIndexes() {
+        return jdbcTemplate.execute((ConnectionCallback<List<List<String>>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? TABLE.toUpperCase(Locale.ROOT) : TABLE;
+            Map<String, TreeMap<Short, String>> indexes = new HashMap<>();
+            try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+                while (rows.next()) {
+                    String name = rows.getString("INDEX_NAME");
+                    String column = rows.getString("COLUMN_NAME");
+                    if (name != null && column != null) {
+                        indexes.computeIfAbsent(name, key -> new TreeMap<>())
+                                .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            List<List<String>> columns = new ArrayList<>();
+            for (TreeMap<Short, String> index : indexes.values()) {
+                columns.add(new ArrayList<>(index.values()));
+            }
+            return columns;
+        });
+    }
+
+    private static double millis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static class Shape {
+        private final List<String> equality;
+        private final String sort;
+        private final List<String> range;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Shape(List<String> equality, String sort, List<String> range) {
+            this.equality = Collections.unmodifiableList(equality);
+            this.sort = sort;
+            this.range = Collections.unmodifiableList(range);
+        }
+
+        private void add(long elapsedNanos) {
+            calls.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        /**
+         * Past the equality prefix an index can either return rows in sort order or narrow
+         * one range, the sort is preferred as it also saves the filesort.
+         */
+        private List<String> indexColumns() {
+            List<String> columns = new ArrayList<>(equality);
+            if (sort != null) {
+                columns.add(sort);
+            } else if (!range.isEmpty()) {
+                columns.add(range.get(0));
+            }
+            return columns;
+        }
+    }
+}
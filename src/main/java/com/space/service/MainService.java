@@ -2,135 +2,438 @@ package com.space.service;
 
 import com.space.model.Ship;
 import com.space.exception.*;
+import com.space.model.ShipAggregate;
+import com.space.model.ShipBulkResult;
+import com.space.model.ShipFacetCell;
+import com.space.model.ShipFacets;
+import com.space.model.ShipGrouping;
+import com.space.model.ShipHistogram;
+import com.space.model.ShipHistogramField;
+import com.space.model.ShipImportFormat;
+import com.space.model.ShipImportReport;
+import com.space.model.ShipSearchField;
+import com.space.model.ShipSuggestion;
 import com.space.model.ShipType;
+import com.space.model.ShipVersion;
 import com.space.repository.ShipRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.Calendar;
+import javax.persistence.Tuple;
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class MainService implements ShipService {
+    private static final int DEFAULT_HISTOGRAM_BUCKETS = 10;
+    private static final int MAX_HISTOGRAM_BUCKETS = 1000;
+    private static final int MAX_SUGGESTIONS = ShipPrefixIndex.MAX_LIMIT;
+    private static final List<String> SHIP_FIELDS = Arrays.asList(
+            "id", "name", "planet", "shipType", "prodDate", "isUsed", "speed", "crewSize", "rating");
+
     private ShipRepository shipRepository;
+    private ShipChangeNotifier changeNotifier;
+    private ShipTrigramIndex trigramIndex;
+    private ShipPrefixIndex prefixIndex;
+    private ShipColumnStore columnStore;
+    private ShipResultCache resultCache;
+    private IndexAdvisor indexAdvisor;
+    private RatingCalculator ratingCalculator;
+    private ShipValidator shipValidator;
+    private RatingRecomputeJob ratingRecomputeJob;
+    private ShipImporter shipImporter;
+    private ShipOutbox outbox;
+
+    @Value("${ship.bulk.batch-size}")
+    private int batchSize;
+
+    @Value("${ship.search.min-similarity}")
+    private double minSimilarity;
+
+    @Value("${ship.suggest.min-prefix-length}")
+    private int minPrefixLength;
 
     @Autowired
     public void setShipRepository(ShipRepository shipRepository) {
         this.shipRepository = shipRepository;
     }
 
+    @Autowired
+    public void setChangeNotifier(ShipChangeNotifier changeNotifier) {
+        this.changeNotifier = changeNotifier;
+    }
+
+    @Autowired
+    public void setTrigramIndex(ShipTrigramIndex trigramIndex) {
+        this.trigramIndex = trigramIndex;
+    }
+
+    @Autowired
+    public void setPrefixIndex(ShipPrefixIndex prefixIndex) {
+        this.prefixIndex = prefixIndex;
+    }
+
+    @Autowired
+    public void setColumnStore(ShipColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
+
+    @Autowired
+    public void setResultCache(ShipResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    @Autowired
+    public void setIndexAdvisor(IndexAdvisor indexAdvisor) {
+        this.indexAdvisor = indexAdvisor;
+    }
+
+    @Autowired
+    public void setRatingCalculator(RatingCalculator ratingCalculator) {
+        this.ratingCalculator = ratingCalculator;
+    }
+
+    @Autowired
+    public void setShipValidator(ShipValidator shipValidator) {
+        this.shipValidator = shipValidator;
+    }
+
+    @Autowired
+    public void setRatingRecomputeJob(RatingRecomputeJob ratingRecomputeJob) {
+        this.ratingRecomputeJob = ratingRecomputeJob;
+    }
+
+    @Autowired
+    public void setShipImporter(ShipImporter shipImporter) {
+        this.shipImporter = shipImporter;
+    }
+
+    @Autowired
+    public void setOutbox(ShipOutbox outbox) {
+        this.outbox = outbox;
+    }
+
     @Override
+    @Transactional
     public Ship createShip(Ship ship) {
-        checkShipParameters(ship);
-        Double raiting = calculateRating(ship);
+        shipValidator.checkShipParameters(ship);
+        Double raiting = shipValidator.calculateRating(ship);
         ship.setRating(raiting);
-        return shipRepository.saveAndFlush(ship);
-    }
-
-    private Double calculateRating(Ship ship) throws ShipNotFoundException {
-        if (ship != null) {
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(ship.getProdDate());
-            int year = cal.get(Calendar.YEAR);
-            Boolean isUsed = ship.getUsed();
-            if (isUsed == null) {
-                isUsed = false;
-                ship.setUsed(false);
+        Ship saved = shipRepository.saveAndFlush(ship);
+        outbox.created(saved);
+        changeNotifier.saved(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<ShipBulkResult> createShips(List<Ship> ships) {
+        List<Ship> accepted = new ArrayList<>(ships.size());
+        Map<Integer, String> errors = new HashMap<>();
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            try {
+                if (ship == null) {
+                    throw new BadRequestException("Ship is empty");
+                }
+                shipValidator.checkShipParameters(ship);
+                ship.setRating(shipValidator.calculateRating(ship));
+                accepted.add(ship);
+            } catch (BadRequestException e) {
+                errors.put(i, e.getMessage());
             }
-            BigDecimal raiting = BigDecimal.valueOf((80 * ship.getSpeed() * (isUsed ? 0.5 : 1)) / (3019 - year + 1));
-            raiting = raiting.setScale(2, RoundingMode.HALF_UP);
-            return raiting.doubleValue();
-        } else {
-            throw new ShipNotFoundException("Ship is null");
         }
+        shipRepository.insertAll(accepted, batchSize);
+        outbox.createdAll(accepted, batchSize);
+        accepted.forEach(changeNotifier::saved);
+
+        List<ShipBulkResult> results = new ArrayList<>(ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            results.add(errors.containsKey(i)
+                    ? ShipBulkResult.rejected(i, errors.get(i))
+                    : ShipBulkResult.created(i, ships.get(i)));
+        }
+        return results;
     }
 
-    private void checkShipParameters(Ship ship) {
-        String name = ship.getName();
-        checkName(name);
-        String planet = ship.getPlanet();
-        checkPlanet(planet);
-        ShipType type = ship.getShipType();
-        try {
-            checkShipType(type);
-        } catch (ShipTypeException e) {
-            e.printStackTrace();
+    @Override
+    public ShipImportReport importShips(BufferedReader reader, ShipImportFormat format) {
+        return shipImporter.importShips(reader, format, shipValidator::prepareImported);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Ship> gelAllShips(Specification<Ship> specification, Pageable sortedByName) {
+        return shipRepository.findAll(specification, sortedByName);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Ship> gelAllShips(ShipFilter filter, Pageable pageable) {
+        return resultCache.page(filter, pageable, () -> {
+            if (columnStore.isReady()) {
+                return columnStore.findAll(filter, pageable);
+            }
+            long start = System.nanoTime();
+            Page<Ship> page = shipRepository.findAll(filterBy(filter), pageable);
+            indexAdvisor.record(filter, pageable.getSort(), System.nanoTime() - start);
+            return page;
+        });
+    }
+
+    @Override
+    public List<Ship> gelAllShips(Specification<Ship> specification) {
+        return shipRepository.findAll(specification);
+    }
+
+    @Override
+    public List<Map<String, Object>> gelShipFields(Specification<Ship> specification, List<String> fields, Pageable pageable) {
+        fields = new ArrayList<>(new LinkedHashSet<>(fields));
+        for (String field : fields) {
+            if (!SHIP_FIELDS.contains(field)) {
+                throw new BadRequestException("Unknown field " + field);
+            }
         }
-        Calendar cal = Calendar.getInstance();
-        Date prodDate = ship.getProdDate();
-        cal.setTime(ship.getProdDate());
-        int year = cal.get(Calendar.YEAR);
-        checkYear(year, prodDate);
-        Boolean isUsed = ship.getUsed();
-        if (isUsed == null) {
-            isUsed = false;
+        List<Tuple> tuples = shipRepository.findFields(specification, fields, pageable);
+        List<Map<String, Object>> ships = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> ship = new LinkedHashMap<>();
+            for (String field : fields) {
+                ship.put(field, tuple.get(field));
+            }
+            ships.add(ship);
         }
-        Double speed = ship.getSpeed();
-        checkSpeed(speed);
-        Integer crewSize = ship.getCrewSize();
-        checkCrewSize(crewSize);
+        return ships;
     }
 
-    private void checkCrewSize(Integer crewSize) {
-        if (crewSize == null || crewSize < 1 || crewSize > 9999) {
-            throw new BadRequestException("Crew size is invalid");
+    @Override
+    public List<Ship> gelShipsAfter(Specification<Ship> specification, ShipCursor cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new BadRequestException("pageSize must be positive");
         }
+        return shipRepository.findLimited(specification.and(cursor.toSpecification()), cursor.toSort(), pageSize);
     }
 
-    private void checkSpeed(Double speed) {
-        if (speed == null || speed < (0.01) || speed > (0.99)) {
-            throw new BadRequestException("Speed is invalid");
+    @Override
+    @Transactional(readOnly = true)
+    public void exportShips(Specification<Ship> specification, Sort sort, Consumer<Ship> consumer) {
+        try (Stream<Ship> ships = shipRepository.streamAll(specification, sort)) {
+            ships.forEach(consumer);
         }
     }
 
-    private void checkYear(int year, Date prodDate) {
-        if (year < 2800 || year > 3019 || prodDate == null) {
-            throw new BadRequestException("Production date is invalid");
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public long countShips(Specification<Ship> specification) {
+        return shipRepository.count(specification);
     }
 
-    private void checkShipType(ShipType type) throws ShipTypeException {
-        if (type == null) {
-            throw new ShipTypeException("Ship type is incorrect");
+    @Override
+    @Transactional(readOnly = true)
+    public long countShips(ShipFilter filter) {
+        return resultCache.count(filter, () -> {
+            if (columnStore.isReady()) {
+                return columnStore.count(filter);
+            }
+            long start = System.nanoTime();
+            long count = shipRepository.count(filterBy(filter));
+            indexAdvisor.record(filter, null, System.nanoTime() - start);
+            return count;
+        });
+    }
+
+    @Override
+    public List<ShipAggregate> aggregateShips(Specification<Ship> specification, ShipGrouping grouping) {
+        return shipRepository.aggregate(specification, grouping);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Ship> searchShips(ShipSearchField field, String text, Double minSimilarity, int limit) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new BadRequestException("Search text is empty");
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be positive");
+        }
+        if (minSimilarity == null) {
+            minSimilarity = this.minSimilarity;
         }
+        List<Long> ids = trigramIndex.similar(field, text, minSimilarity, limit);
+        Map<Long, Ship> ships = new HashMap<>();
+        for (Ship ship : shipRepository.findAllById(ids)) {
+            ships.put(ship.getId(), ship);
+        }
+        List<Ship> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (ships.containsKey(id)) {
+                ranked.add(ships.get(id));
+            }
+        }
+        return ranked;
     }
 
-    private void checkPlanet(String planet) {
-        if (planet == null || planet.isEmpty() || planet.length() > 50) {
-            throw new BadRequestException("Planet is incorrect");
+    @Override
+    public List<ShipSuggestion> suggest(ShipSearchField field, String prefix, int limit) {
+        if (prefix == null || prefix.length() < minPrefixLength) {
+            throw new BadRequestException("prefix must have at least " + minPrefixLength + " characters");
         }
+        if (limit <= 0 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return prefixIndex.complete(field, prefix, limit);
+    }
+
+    @Override
+    public int recomputeRatings() {
+        return ratingRecomputeJob.recomputeAll();
     }
 
-    private void checkName(String name) {
-        if (name == null || name.isEmpty() || name.length() > 50) {
-            throw new BadRequestException("Ship name is incorrect");
+    @Override
+    @Transactional(readOnly = true)
+    public ShipFacets facetShips(ShipFilter filter, int topPlanets) {
+        if (topPlanets <= 0) {
+            throw new BadRequestException("topPlanets must be positive");
+        }
+        ShipFilter base = filter.copy();
+        base.setPlanet(null);
+        base.setShipType(null);
+        base.setIsUsed(null);
+        List<ShipFacetCell> cells = shipRepository.countFacetCells(filterBy(base), filterByPlanet(filter.getPlanet()));
+
+        Map<ShipType, Long> shipTypes = new EnumMap<>(ShipType.class);
+        for (ShipType shipType : ShipType.values()) {
+            shipTypes.put(shipType, 0L);
+        }
+        Map<Boolean, Long> usage = new LinkedHashMap<>();
+        usage.put(true, 0L);
+        usage.put(false, 0L);
+        Map<String, Long> planets = new HashMap<>();
+        long count = 0;
+        for (ShipFacetCell cell : cells) {
+            boolean typeMatch = filter.getShipType() == null || filter.getShipType() == cell.getShipType();
+            boolean usageMatch = filter.getIsUsed() == null || filter.getIsUsed().equals(cell.getIsUsed());
+            if (cell.isPlanetMatch() && usageMatch && cell.getShipType() != null) {
+                shipTypes.merge(cell.getShipType(), cell.getCount(), Long::sum);
+            }
+            // like the isUsed filter, a ship of unknown usage is neither used nor new
+            if (cell.isPlanetMatch() && typeMatch && cell.getIsUsed() != null) {
+                usage.merge(cell.getIsUsed(), cell.getCount(), Long::sum);
+            }
+            if (typeMatch && usageMatch) {
+                planets.merge(cell.getPlanet(), cell.getCount(), Long::sum);
+                if (cell.isPlanetMatch()) {
+                    count += cell.getCount();
+                }
+            }
         }
+
+        Map<String, Long> topPlanetCounts = new LinkedHashMap<>();
+        planets.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(topPlanets)
+                .forEach(entry -> topPlanetCounts.put(entry.getKey(), entry.getValue()));
+        return new ShipFacets(count, shipTypes, usage, topPlanetCounts);
     }
 
     @Override
-    public Page<Ship> gelAllShips(Specification<Ship> specification, Pageable sortedByName) {
-        return shipRepository.findAll(specification, sortedByName);
+    @Transactional(readOnly = true)
+    public ShipHistogram histogramShips(Specification<Ship> specification, ShipHistogramField field,
+                                        Double bucketWidth, Integer buckets) {
+        if (bucketWidth != null && buckets != null) {
+            throw new BadRequestException("Use either bucketWidth or buckets");
+        }
+        if (bucketWidth != null && !(bucketWidth > 0)) {
+            throw new BadRequestException("bucketWidth must be positive");
+        }
+        if (bucketWidth == null && buckets == null) {
+            buckets = DEFAULT_HISTOGRAM_BUCKETS;
+        }
+        if (buckets != null && (buckets <= 0 || buckets > MAX_HISTOGRAM_BUCKETS)) {
+            throw new BadRequestException("buckets must be between 1 and " + MAX_HISTOGRAM_BUCKETS);
+        }
+
+        ShipAggregate.Statistics range = shipRepository.summarize(specification, field);
+        if (range.getMin() == null) {
+            return new ShipHistogram(field, bucketWidth == null ? 0 : bucketWidth, new ArrayList<>());
+        }
+        double min = range.getMin();
+        double max = range.getMax();
+        double width;
+        if (bucketWidth != null) {
+            width = bucketWidth;
+        } else if (field.isDiscrete()) {
+            width = Math.max(1, Math.ceil((max - min + 1) / buckets));
+        } else {
+            width = max > min ? (max - min) / buckets : 1;
+        }
+        double span = Math.floor((max - min) / width) + 1;
+        if (bucketWidth != null && span > MAX_HISTOGRAM_BUCKETS) {
+            throw new BadRequestException("bucketWidth yields more than " + MAX_HISTOGRAM_BUCKETS + " buckets");
+        }
+        int bucketCount = (int) (bucketWidth != null ? span : Math.min(span, buckets));
+
+        long[] counts = new long[bucketCount];
+        for (Map.Entry<Integer, Long> entry : shipRepository.countBuckets(specification, field, min, width).entrySet()) {
+            counts[Math.max(0, Math.min(entry.getKey(), bucketCount - 1))] += entry.getValue();
+        }
+        List<ShipHistogram.Bucket> histogram = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            histogram.add(new ShipHistogram.Bucket(min + i * width, min + (i + 1) * width, counts[i]));
+        }
+        return new ShipHistogram(field, width, histogram);
     }
 
     @Override
-    public List<Ship> gelAllShips(Specification<Ship> specification) {
-        return shipRepository.findAll(specification);
+    public Specification<Ship> filterBy(ShipFilter filter) {
+        return Specification.where(filterByName(filter.getName()))
+                .and(filterByPlanet(filter.getPlanet()))
+                .and(filterByShipType(filter.getShipType()))
+                .and(filterByDate(filter.getAfter(), filter.getBefore()))
+                .and(filterByUsage(filter.getIsUsed()))
+                .and(filterBySpeed(filter.getMinSpeed(), filter.getMaxSpeed()))
+                .and(filterByCrewSize(filter.getMinCrewSize(), filter.getMaxCrewSize()))
+                .and(filterByRating(filter.getMinRating(), filter.getMaxRating()));
     }
 
     @Override
     public Specification<Ship> filterByName(String name) {
-        return (root, query, cb) -> name == null ? null : cb.like(root.get("name"), "%" + name + "%");
+        Specification<Ship> like = (root, query, cb) -> name == null ? null : cb.like(root.get("name"), "%" + name + "%");
+        return name == null ? like : like.and(filterByIds(trigramIndex.candidates(ShipSearchField.NAME, name)));
     }
 
     @Override
     public Specification<Ship> filterByPlanet(String planet) {
-        return (root, query, cb) -> planet == null ? null : cb.like(root.get("planet"), "%" + planet + "%");
+        Specification<Ship> like = (root, query, cb) -> planet == null ? null : cb.like(root.get("planet"), "%" + planet + "%");
+        return planet == null ? like : like.and(filterByIds(trigramIndex.candidates(ShipSearchField.PLANET, planet)));
+    }
+
+    private Specification<Ship> filterByIds(Set<Long> ids) {
+        return (root, query, cb) -> {
+            if (ids == null)
+                return null;
+            if (ids.isEmpty())
+                return cb.disjunction();
+            return root.get("id").in(ids);
+        };
     }
 
     @Override
@@ -211,10 +514,54 @@ public class MainService implements ShipService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        if (shipRepository.existsById(id)) {
-            shipRepository.deleteById(id);
-        } else throw new ShipNotFoundException("Ship not found");
+        if (shipRepository.softDeleteById(id, new Date()) == 0) {
+            throw new ShipNotFoundException("Ship not found");
+        }
+        outbox.deleted(id);
+        changeNotifier.deleted(id);
+    }
+
+    @Override
+    @Transactional
+    public int updateShips(ShipFilter filter, Ship changes) {
+        checkBulkFilter(filter);
+        if (changes == null || (changes.getName() == null && changes.getPlanet() == null && changes.getShipType() == null
+                && changes.getProdDate() == null && changes.getUsed() == null && changes.getSpeed() == null
+                && changes.getCrewSize() == null)) {
+            throw new BadRequestException("Nothing to update");
+        }
+        if (changes.getName() != null)
+            shipValidator.checkName(changes.getName());
+        if (changes.getPlanet() != null)
+            shipValidator.checkPlanet(changes.getPlanet());
+        if (changes.getProdDate() != null)
+            shipValidator.checkYear(ratingCalculator.productionYear(changes.getProdDate()), changes.getProdDate());
+        if (changes.getSpeed() != null)
+            shipValidator.checkSpeed(changes.getSpeed());
+        if (changes.getCrewSize() != null)
+            shipValidator.checkCrewSize(changes.getCrewSize());
+        int updated = shipRepository.updateAll(filterBy(filter), changes, ratingCalculator.getReferenceYear());
+        outbox.fleetChanged();
+        changeNotifier.fleetChanged();
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int deleteShips(ShipFilter filter) {
+        checkBulkFilter(filter);
+        int deleted = shipRepository.deleteAll(filterBy(filter));
+        outbox.fleetChanged();
+        changeNotifier.fleetChanged();
+        return deleted;
+    }
+
+    private void checkBulkFilter(ShipFilter filter) {
+        if (filter.isEmpty()) {
+            throw new BadRequestException("At least one filter is required");
+        }
     }
 
     @Override
@@ -237,32 +584,36 @@ public class MainService implements ShipService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Ship getShip(Long id) {
-        if (shipRepository.existsById(id)) {
-            return shipRepository.findById(id).get();
-        } else throw new ShipNotFoundException("Ship is not found");
+        return shipRepository.findById(id)
+                .orElseThrow(() -> new ShipNotFoundException("Ship is not found"));
+    }
+
+    @Override
+    public ShipVersion getShipVersion(Long id) {
+        return shipRepository.findVersionById(id)
+                .orElseThrow(() -> new ShipNotFoundException("Ship is not found"));
     }
 
     @Override
-    public Ship editShip(Long id, Ship ship) {
-        if (!shipRepository.existsById(id)) {
-            throw new ShipNotFoundException("Ship was not found");
+    @Transactional
+    public Ship editShip(Long id, Ship ship, Set<Long> expectedVersions) {
+        Ship oldShip = shipRepository.findById(id)
+                .orElseThrow(() -> new ShipNotFoundException("Ship was not found"));
+        if (expectedVersions != null && !expectedVersions.contains(oldShip.getVersion())) {
+            throw new ShipConflictException("Ship was modified by another request");
         }
-        Ship oldShip = shipRepository.findById(id).get();
-        checkShipParameters(oldShip);
+        shipValidator.checkShipParameters(oldShip);
         if (ship.getName() != null) {
-            checkName(ship.getName());
+            shipValidator.checkName(ship.getName());
             oldShip.setName(ship.getName());
         }
         if (ship.getPlanet() != null) {
             oldShip.setPlanet(ship.getPlanet());
         }
         if (ship.getProdDate() != null) {
-            Calendar cal = Calendar.getInstance();
-            Date prodDate = ship.getProdDate();
-            cal.setTime(ship.getProdDate());
-            int year = cal.get(Calendar.YEAR);
-            checkYear(year, prodDate);
+            shipValidator.checkYear(ratingCalculator.productionYear(ship.getProdDate()), ship.getProdDate());
             oldShip.setProdDate(ship.getProdDate());
         }
         if (ship.getSpeed() != null) {
@@ -270,7 +621,7 @@ public class MainService implements ShipService {
         }
         if (ship.getCrewSize() != null) {
             Integer crewSize = ship.getCrewSize();
-            checkCrewSize(crewSize);
+            shipValidator.checkCrewSize(crewSize);
             oldShip.setCrewSize(ship.getCrewSize());
         }
         if (ship.getShipType() != null) {
@@ -279,10 +630,17 @@ public class MainService implements ShipService {
         if (ship.getUsed() != null) {
             oldShip.setUsed(ship.getUsed());
         }
-        Double rating = calculateRating(oldShip);
+        Double rating = shipValidator.calculateRating(oldShip);
         if (rating != null) {
             oldShip.setRating(rating);
         }
-        return shipRepository.save(oldShip);
+        try {
+            Ship saved = shipRepository.saveAndFlush(oldShip);
+            outbox.updated(saved);
+            changeNotifier.saved(saved);
+            return saved;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ShipConflictException("Ship was modified by another request", e);
+        }
     }
 }
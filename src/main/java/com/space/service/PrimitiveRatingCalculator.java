@@ -0,0 +1,70 @@
+package com.space.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Computes ratings on primitives only. Gives the same result as
+ * BigDecimal.valueOf(raw).setScale(2, HALF_UP) without creating a Calendar or a BigDecimal per ship.
+ */
+@Component
+public class PrimitiveRatingCalculator implements RatingCalculator {
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private final int referenceYear;
+    private final TimeZone timeZone;
+
+    @Autowired
+    public PrimitiveRatingCalculator(@Value("${ship.rating.reference-year}") int referenceYear) {
+        this(referenceYear, TimeZone.getDefault());
+    }
+
+    public PrimitiveRatingCalculator(int referenceYear, TimeZone timeZone) {
+        this.referenceYear = referenceYear;
+        this.timeZone = timeZone;
+    }
+
+    @Override
+    public int getReferenceYear() {
+        return referenceYear;
+    }
+
+    @Override
+    public int productionYear(Date prodDate) {
+        long millis = prodDate.getTime();
+        return yearOfEpochDay(Math.floorDiv(millis + timeZone.getOffset(millis), MILLIS_PER_DAY));
+    }
+
+    @Override
+    public double rate(double speed, boolean used, int productionYear) {
+        return roundHalfUp((80 * speed * (used ? 0.5 : 1)) / (referenceYear - productionYear + 1));
+    }
+
+    /**
+     * BigDecimal.valueOf rounds the shortest decimal form of the double, so a value is a tie only
+     * when it is exactly the double nearest to (2k + 1) / 200; everything else rounds to nearest.
+     */
+    static double roundHalfUp(double value) {
+        long lower = (long) Math.floor(value * 100);
+        double tie = (2 * lower + 1) / 200.0;
+        return (value >= tie ? lower + 1 : lower) / 100.0;
+    }
+
+    /**
+     * Proleptic Gregorian year of a day counted from 1970-01-01, as in java.time.LocalDate.ofEpochDay.
+     */
+    static int yearOfEpochDay(long epochDay) {
+        long zeroDay = epochDay + 719468;
+        long era = Math.floorDiv(zeroDay, 146097);
+        long dayOfEra = zeroDay - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long marchMonth = (5 * dayOfYear + 2) / 153;
+        long year = yearOfEra + era * 400;
+        return (int) (marchMonth >= 10 ? year + 1 : year);
+    }
+}
@@ -0,0 +1,16 @@
+package com.space.service;
+
+import java.util.Date;
+
+/**
+ * Ship rating formula: 80 * speed * k / (referenceYear - productionYear + 1), rounded HALF_UP
+ * to two decimals, where k is 0.5 for used ships and 1 otherwise.
+ */
+public interface RatingCalculator {
+
+    int getReferenceYear();
+
+    int productionYear(Date prodDate);
+
+    double rate(double speed, boolean used, int productionYear);
+}
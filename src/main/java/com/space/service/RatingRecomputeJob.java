@@ -0,0 +1,115 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Re-rates the whole table after the formula or the reference year changes. The id range is cut
+ * into chunks that are re-rated in parallel, each in its own transaction, so only changed ratings
+ * are written and a failure rolls back one chunk only.
+ */
+@Component
+public class RatingRecomputeJob {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ShipRepository shipRepository;
+    private final RatingCalculator ratingCalculator;
+    private final ShipChangeNotifier changeNotifier;
+    private final ShipOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ship.rating.recompute-chunk-size}")
+    private int chunkSize;
+
+    @Value("${ship.rating.recompute-threads}")
+    private int threads;
+
+    @Autowired
+    public RatingRecomputeJob(ShipRepository shipRepository, RatingCalculator ratingCalculator,
+                              ShipChangeNotifier changeNotifier, ShipOutbox outbox,
+                              PlatformTransactionManager transactionManager) {
+        this.shipRepository = shipRepository;
+        this.ratingCalculator = ratingCalculator;
+        this.changeNotifier = changeNotifier;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int recomputeAll() {
+        Long minId = shipRepository.findMinId();
+        Long maxId = shipRepository.findMaxId();
+        if (minId == null) {
+            return 0;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(from + chunkSize - 1, maxId);
+                chunks.add(executor.submit(() -> recomputeChunk(chunkFrom, chunkTo)));
+            }
+            int updated = 0;
+            for (Future<Integer> chunk : chunks) {
+                updated += chunk.get();
+            }
+            if (updated > 0) {
+                changeNotifier.fleetChanged();
+            }
+            return updated;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rating recompute was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Rating recompute failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int recomputeChunk(long fromId, long toId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    int updated = 0;
+                    for (Ship ship : shipRepository.findByIdBetween(fromId, toId)) {
+                        if (ship.getSpeed() == null || ship.getProdDate() == null) {
+                            continue;
+                        }
+                        double rating = ratingCalculator.rate(ship.getSpeed(), Boolean.TRUE.equals(ship.getUsed()),
+                                ratingCalculator.productionYear(ship.getProdDate()));
+                        if (ship.getRating() == null || ship.getRating() != rating) {
+                            ship.setRating(rating);
+                            updated++;
+                        }
+                    }
+                    if (updated > 0) {
+                        outbox.fleetChanged();
+                    }
+                    return updated;
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.space.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves tombstoned ships, and live ships produced before ship.archive.before-year, from the ship
+ * table into ship_archive, so the hot table and its indexes only hold the ships still served.
+ * Ships are moved in chunks, each copied and deleted in its own short transaction, and the purger
+ * sleeps between chunks to stay under ship.archive.max-rows-per-second. The live ships of a chunk
+ * are published as deleted once it commits, so caches and indexes drop them as the purge goes
+ * rather than after the last chunk.
+ */
+@Component
+public class ShipArchivePurger {
+    private static final String COLUMNS =
+            "id, name, planet, shipType, prodDate, isUsed, speed, crewSize, rating, version, lastModified, deletedAt";
+    private static final String TOMBSTONED = "deletedAt IS NOT NULL";
+    private static final String PRODUCED_BEFORE = "deletedAt IS NULL AND prodDate < :before";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShipChangeNotifier changeNotifier;
+    private final ShipOutbox outbox;
+
+    @Value("${ship.archive.enabled}")
+    private boolean enabled;
+
+    @Value("${ship.archive.before-year}")
+    private int beforeYear;
+
+    @Value("${ship.archive.chunk-size}")
+    private int chunkSize;
+
+    @Value("${ship.archive.max-rows-per-second}")
+    private int maxRowsPerSecond;
+
+    @Autowired
+    public ShipArchivePurger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ShipChangeNotifier changeNotifier, ShipOutbox outbox) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeNotifier = changeNotifier;
+        this.outbox = outbox;
+    }
+
+    @Scheduled(initialDelayString = "${ship.archive.interval-millis}", fixedDelayString = "${ship.archive.interval-millis}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /**
+     * @return number of ships moved to the archive
+     */
+    public int purge() {
+        long start = System.nanoTime();
+        int archived = archive(TOMBSTONED, new MapSqlParameterSource(), false, start, 0);
+        if (beforeYear > 0) {
+            MapSqlParameterSource before = new MapSqlParameterSource("before", Date.valueOf(LocalDate.of(beforeYear, 1, 1)));
+            archived += archive(PRODUCED_BEFORE, before, true, start, archived);
+        }
+        return archived;
+    }
+
+    /**
+     * @param visible whether the moved ships were still served, tombstones already left the caches
+     *                and indexes when they were deleted
+     */
+    private int archive(String condition, MapSqlParameterSource parameters, boolean visible,
+                        long start, int archivedBefore) {
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM ship WHERE " + condition
+                        + " ORDER BY id LIMIT " + chunkSize + " FOR UPDATE", parameters, Long.class);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                MapSqlParameterSource chunk = new MapSqlParameterSource("ids", ids)
+                        .addValue("archivedAt", new Timestamp(System.currentTimeMillis()));
+                jdbcTemplate.update("INSERT INTO ship_archive (" + COLUMNS + ", archivedAt) SELECT " + COLUMNS
+                        + ", :archivedAt FROM ship WHERE id IN (:ids)", chunk);
+                int deleted = jdbcTemplate.update("DELETE FROM ship WHERE id IN (:ids)", chunk);
+                if (visible) {
+                    outbox.fleetChanged();
+                    ids.forEach(changeNotifier::deleted);
+                }
+                return deleted;
+            });
+            if (moved == null || moved == 0) {
+                return archived;
+            }
+            archived += moved;
+            if (!throttle(start, archivedBefore + archived)) {
+                return archived;
+            }
+        }
+    }
+
+    /**
+     * Sleeps until moving {@code archived} ships since {@code start} is within the rate limit.
+     *
+     * @return false when interrupted, the purge then stops and resumes on the next run
+     */
+    private boolean throttle(long start, int archived) {
+        long due = start + TimeUnit.SECONDS.toNanos(archived) / maxRowsPerSecond;
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
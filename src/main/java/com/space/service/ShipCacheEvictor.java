@@ -0,0 +1,43 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the second-level and query caches in step with writes made through this application
+ * that Hibernate does not see, such as JDBC batch inserts and recompute jobs.
+ */
+@Component
+public class ShipCacheEvictor implements ShipChangeListener {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public ShipCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        evictQueries();
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        entityManagerFactory.getCache().evict(Ship.class, id);
+        evictQueries();
+    }
+
+    @Override
+    public void fleetChanged() {
+        entityManagerFactory.getCache().evict(Ship.class);
+        evictQueries();
+    }
+
+    private void evictQueries() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
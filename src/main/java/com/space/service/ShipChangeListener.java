@@ -0,0 +1,19 @@
+package com.space.service;
+
+import com.space.model.Ship;
+
+/**
+ * Receives ship changes after the transaction that made them has committed.
+ */
+public interface ShipChangeListener {
+
+    void shipSaved(Ship ship);
+
+    void shipDeleted(Long id);
+
+    /**
+     * Any number of ships changed in a way that is not known ship by ship: a bulk statement,
+     * a script run against the database or a recompute job.
+     */
+    void fleetChanged();
+}
@@ -0,0 +1,51 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Fans ship changes out to every ShipChangeListener once the current transaction commits,
+ * or right away when there is no transaction. Rolled back changes are never published.
+ */
+@Component
+public class ShipChangeNotifier {
+    private final List<ShipChangeListener> listeners;
+
+    @Autowired
+    public ShipChangeNotifier(ObjectProvider<ShipChangeListener> listeners) {
+        this.listeners = listeners.orderedStream().collect(Collectors.toList());
+    }
+
+    public void saved(Ship ship) {
+        afterCommit(listener -> listener.shipSaved(ship));
+    }
+
+    public void deleted(Long id) {
+        afterCommit(listener -> listener.shipDeleted(id));
+    }
+
+    public void fleetChanged() {
+        afterCommit(ShipChangeListener::fleetChanged);
+    }
+
+    private void afterCommit(Consumer<ShipChangeListener> event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    listeners.forEach(event);
+                }
+            });
+        } else {
+            listeners.forEach(event);
+        }
+    }
+}
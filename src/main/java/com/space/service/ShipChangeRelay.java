@@ -0,0 +1,59 @@
+package com.space.service;
+
+import com.space.model.ShipChangeEvent;
+import com.space.model.ShipChangeType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hands the changes other processes write to the outbox, such as the ImportShips command, to this
+ * application's listeners, so its caches and indexes follow them. Changes made here were already
+ * published when they committed and are skipped. A batch holding fleet changes publishes a single
+ * fleet change, which covers the ship events of the batch as well.
+ */
+@Component
+public class ShipChangeRelay implements ShipEventSubscriber {
+    private final ShipOutbox outbox;
+    private final ShipChangeNotifier changeNotifier;
+
+    @Value("${ship.outbox.relay-name}")
+    private String name;
+
+    @Autowired
+    public ShipChangeRelay(ShipOutbox outbox, ShipChangeNotifier changeNotifier) {
+        this.outbox = outbox;
+        this.changeNotifier = changeNotifier;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void onEvents(List<ShipChangeEvent> events) {
+        boolean fleetChanged = events.stream()
+                .anyMatch(event -> isForeign(event) && event.getType() == ShipChangeType.FLEET_CHANGED);
+        if (fleetChanged) {
+            changeNotifier.fleetChanged();
+            return;
+        }
+        for (ShipChangeEvent event : events) {
+            if (!isForeign(event)) {
+                continue;
+            }
+            if (event.getType() == ShipChangeType.DELETED) {
+                changeNotifier.deleted(event.getShipId());
+            } else {
+                changeNotifier.saved(event.getShip());
+            }
+        }
+    }
+
+    private boolean isForeign(ShipChangeEvent event) {
+        return !outbox.getOrigin().equals(event.getOrigin());
+    }
+}
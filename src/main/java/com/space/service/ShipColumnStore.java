@@ -0,0 +1,552 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of the fleet that answers list and count queries without the database.
+ * Every field is kept in a primitive array indexed by row: production dates as local epoch days,
+ * ship types as ordinals, usage as bit sets and planets as codes into a dictionary. Ship type,
+ * usage, planet and production year are also indexed by compressed bitmaps of rows, so filters on
+ * them are bitmap intersections and only the remaining filters are evaluated row by row, in
+ * parallel once enough rows are left. Bulk changes reload the whole fleet in the background and
+ * queries go to the database until the reload is done.
+ */
+@Component
+public class ShipColumnStore implements ShipChangeListener, ApplicationListener<ContextRefreshedEvent>, DisposableBean {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+    // rows without a ship type match no ship type filter, as NULL does in SQL
+    private static final byte NO_SHIP_TYPE = -1;
+
+    private final ShipRepository shipRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TimeZone timeZone = TimeZone.getDefault();
+    private final ExecutorService rebuilds = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "ship-column-store-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    @Value("${ship.replica.enabled}")
+    private boolean enabled;
+
+    // substring filters follow the database collation: MySQL's utf8_general_ci ignores case, H2 does not
+    @Value("${ship.replica.ignore-case}")
+    private boolean ignoreCase;
+
+    @Value("${ship.replica.parallel-threshold}")
+    private int parallelThreshold;
+
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile boolean ready;
+    // writes reported while a rebuild loads the fleet, replayed on the new columns, guarded by lock
+    private List<Consumer<Columns>> pendingWrites;
+    // bulk changes reported so far, a rebuild that started before the last one is stale, guarded by lock
+    private long fleetChanges;
+
+    @Autowired
+    public ShipColumnStore(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (enabled && event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads the fleet into new columns. A ship saved or deleted while the fleet is loading may or
+     * may not be in the loaded rows, so such writes are recorded and applied to the new columns
+     * again before they replace the old ones.
+     */
+    public synchronized void rebuild() {
+        long changes;
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+            changes = fleetChanges;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Columns newColumns = null;
+        try {
+            List<Ship> ships = shipRepository.findAll();
+            Columns loaded = new Columns(Math.max(INITIAL_CAPACITY, ships.size()));
+            for (Ship ship : ships) {
+                loaded.put(ship, epochDay(ship.getProdDate()));
+            }
+            newColumns = loaded;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (newColumns != null) {
+                    for (Consumer<Columns> write : pendingWrites) {
+                        write.accept(newColumns);
+                    }
+                    columns = newColumns;
+                    ready = changes == fleetChanges;
+                }
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        int prodDay = epochDay(ship.getProdDate());
+        write(columns -> columns.put(ship, prodDay));
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        write(columns -> columns.remove(id));
+    }
+
+    /**
+     * Takes the columns out of service and reloads them on the rebuild thread instead of blocking
+     * the request that made the change. Changes reported while a reload is waiting share it.
+     */
+    @Override
+    public void fleetChanged() {
+        if (!enabled && !ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            fleetChanges++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilds.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilds.shutdownNow();
+    }
+
+    private void write(Consumer<Columns> write) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                write.accept(columns);
+            }
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long count(ShipFilter filter) {
+        lock.readLock().lock();
+        try {
+            Columns columns = this.columns;
+            RoaringBitmap candidates = candidates(columns, filter);
+            IntPredicate residual = residual(columns, filter);
+            if (residual == null) {
+                return candidates == null ? columns.size : candidates.getLongCardinality();
+            }
+            return rows(columns, candidates).filter(residual).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ships matching {@code filter} ordered by the single property of the page's sort, ties
+     * broken by id, so that pages never overlap.
+     */
+    public Page<Ship> findAll(ShipFilter filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Columns columns = this.columns;
+            RoaringBitmap candidates = candidates(columns, filter);
+            IntPredicate residual = residual(columns, filter);
+            int[] matches = residual == null && candidates != null
+                    ? candidates.toArray()
+                    : rows(columns, candidates).filter(residual == null ? row -> true : residual).toArray();
+            Comparator<Integer> comparator = comparator(columns, pageable.getSort());
+
+            long offset = pageable.getOffset();
+            List<Ship> content = new ArrayList<>(pageable.getPageSize());
+            if (offset < matches.length) {
+                int limit = (int) Math.min(matches.length, offset + pageable.getPageSize());
+                List<Integer> top = first(matches, limit, comparator);
+                for (int i = (int) offset; i < top.size(); i++) {
+                    content.add(columns.ship(top.get(i), this));
+                }
+            }
+            return new PageImpl<>(content, pageable, matches.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntStream rows(Columns columns, RoaringBitmap candidates) {
+        if (candidates == null) {
+            IntStream rows = IntStream.range(0, columns.size);
+            return columns.size >= parallelThreshold ? rows.parallel() : rows;
+        }
+        IntStream rows = Arrays.stream(candidates.toArray());
+        return candidates.getCardinality() >= parallelThreshold ? rows.parallel() : rows;
+    }
+
+    /**
+     * Rows passing the indexed filters, or null when none of them is set. Date filters only
+     * narrow the rows down to the production years they reach, the exact days are checked by
+     * {@link #residual}.
+     */
+    private RoaringBitmap candidates(Columns columns, ShipFilter filter) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        if (filter.getShipType() != null) {
+            bitmaps.add(columns.byShipType[filter.getShipType().ordinal()]);
+        }
+        if (filter.getIsUsed() != null) {
+            bitmaps.add(filter.getIsUsed() ? columns.used : columns.unused);
+        }
+        if (filter.getPlanet() != null) {
+            String planet = fold(filter.getPlanet());
+            RoaringBitmap planets = new RoaringBitmap();
+            for (int code = 0; code < columns.planets.size(); code++) {
+                if (fold(columns.planets.get(code)).contains(planet)) {
+                    planets.or(columns.byPlanet.get(code));
+                }
+            }
+            bitmaps.add(planets);
+        }
+        if (filter.getAfter() != null || filter.getBefore() != null) {
+            int fromYear = filter.getAfter() == null ? Integer.MIN_VALUE : yearOf(firstDay(filter.getAfter()));
+            int toYear = filter.getBefore() == null ? Integer.MAX_VALUE : yearOf(lastDay(filter.getBefore()));
+            bitmaps.add(fromYear > toYear
+                    ? new RoaringBitmap()
+                    : FastAggregation.or(columns.byYear.subMap(fromYear, true, toYear, true).values().iterator()));
+        }
+        return bitmaps.isEmpty() ? null : FastAggregation.and(bitmaps.iterator());
+    }
+
+    /**
+     * The {@code limit} smallest rows in order. A bounded max-heap keeps only the rows that can
+     * still reach the page instead of sorting every match.
+     */
+    private static List<Integer> first(int[] matches, int limit, Comparator<Integer> comparator) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, comparator.reversed());
+        for (int row : matches) {
+            heap.add(row);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Integer> rows = new ArrayList<>(heap);
+        rows.sort(comparator);
+        return rows;
+    }
+
+    private Comparator<Integer> comparator(Columns columns, Sort sort) {
+        Comparator<Integer> byId = Comparator.comparingLong(row -> columns.ids[row]);
+        Sort.Order order = sort.stream().findFirst().orElse(null);
+        if (order == null || order.getProperty().equals("id")) {
+            return order != null && order.isDescending() ? byId.reversed() : byId;
+        }
+        Comparator<Integer> byProperty;
+        switch (order.getProperty()) {
+            case "speed":
+                byProperty = Comparator.comparingDouble(row -> columns.speeds[row]);
+                break;
+            case "rating":
+                byProperty = Comparator.comparingDouble(row -> columns.ratings[row]);
+                break;
+            case "prodDate":
+                byProperty = Comparator.comparingInt(row -> columns.prodDays[row]);
+                break;
+            case "crewSize":
+                byProperty = Comparator.comparingInt(row -> columns.crewSizes[row]);
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty());
+        }
+        return (order.isDescending() ? byProperty.reversed() : byProperty).thenComparing(byId);
+    }
+
+    /**
+     * Row by row check of the filters that have no bitmap index, or null when there are none.
+     */
+    private IntPredicate residual(Columns columns, ShipFilter filter) {
+        List<IntPredicate> predicates = new ArrayList<>();
+        if (filter.getName() != null) {
+            String name = fold(filter.getName());
+            predicates.add(row -> fold(columns.names[row]).contains(name));
+        }
+        if (filter.getAfter() != null) {
+            int from = firstDay(filter.getAfter());
+            predicates.add(row -> columns.prodDays[row] >= from);
+        }
+        if (filter.getBefore() != null) {
+            int to = lastDay(filter.getBefore());
+            predicates.add(row -> columns.prodDays[row] <= to);
+        }
+        if (filter.getMinSpeed() != null) {
+            double minSpeed = filter.getMinSpeed();
+            predicates.add(row -> columns.speeds[row] >= minSpeed);
+        }
+        if (filter.getMaxSpeed() != null) {
+            double maxSpeed = filter.getMaxSpeed();
+            predicates.add(row -> columns.speeds[row] <= maxSpeed);
+        }
+        if (filter.getMinCrewSize() != null) {
+            int minCrewSize = filter.getMinCrewSize();
+            predicates.add(row -> columns.crewSizes[row] >= minCrewSize);
+        }
+        if (filter.getMaxCrewSize() != null) {
+            int maxCrewSize = filter.getMaxCrewSize();
+            predicates.add(row -> columns.crewSizes[row] <= maxCrewSize);
+        }
+        if (filter.getMinRating() != null) {
+            double minRating = filter.getMinRating();
+            predicates.add(row -> columns.ratings[row] >= minRating);
+        }
+        if (filter.getMaxRating() != null) {
+            double maxRating = filter.getMaxRating();
+            predicates.add(row -> columns.ratings[row] <= maxRating);
+        }
+        if (predicates.isEmpty()) {
+            return null;
+        }
+
+        IntPredicate[] all = predicates.toArray(new IntPredicate[0]);
+        return row -> {
+            for (IntPredicate predicate : all) {
+                if (!predicate.test(row)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private String fold(String value) {
+        return ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+    }
+
+    /**
+     * First production day on or after {@code after}: dates are stored as midnights.
+     */
+    private int firstDay(long after) {
+        int day = epochDay(after);
+        return midnight(day) < after ? day + 1 : day;
+    }
+
+    private int lastDay(long before) {
+        return epochDay(before);
+    }
+
+    private static int yearOf(int epochDay) {
+        return PrimitiveRatingCalculator.yearOfEpochDay(epochDay);
+    }
+
+    private int epochDay(Date date) {
+        return epochDay(date.getTime());
+    }
+
+    private int epochDay(long millis) {
+        return (int) Math.floorDiv(millis + timeZone.getOffset(millis), DAY_MILLIS);
+    }
+
+    private long midnight(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(timeZone.toZoneId()).toInstant().toEpochMilli();
+    }
+
+    private static class Columns {
+        private final Map<Long, Integer> rowsById = new HashMap<>();
+        private final List<String> planets = new ArrayList<>();
+        private final Map<String, Integer> codesByPlanet = new HashMap<>();
+
+        // rows of unknown usage are in neither, so they match no usage filter, as NULL does in SQL
+        private final RoaringBitmap used = new RoaringBitmap();
+        private final RoaringBitmap unused = new RoaringBitmap();
+        private final RoaringBitmap[] byShipType = new RoaringBitmap[SHIP_TYPES.length];
+        private final List<RoaringBitmap> byPlanet = new ArrayList<>();
+        private final TreeMap<Integer, RoaringBitmap> byYear = new TreeMap<>();
+
+        private int size;
+        private long[] ids;
+        private String[] names;
+        private int[] planetCodes;
+        private byte[] shipTypes;
+        private int[] prodDays;
+        private double[] speeds;
+        private int[] crewSizes;
+        private double[] ratings;
+
+        private Columns(int capacity) {
+            allocate(capacity);
+            for (int i = 0; i < byShipType.length; i++) {
+                byShipType[i] = new RoaringBitmap();
+            }
+        }
+
+        private Boolean isUsed(int row) {
+            return used.contains(row) ? Boolean.TRUE : unused.contains(row) ? Boolean.FALSE : null;
+        }
+
+        private void put(Ship ship, int prodDay) {
+            Integer row = rowsById.get(ship.getId());
+            if (row == null) {
+                if (size == ids.length) {
+                    allocate(size * 2);
+                }
+                row = size++;
+                rowsById.put(ship.getId(), row);
+            } else {
+                unindex(row);
+            }
+            ids[row] = ship.getId();
+            names[row] = ship.getName();
+            planetCodes[row] = planetCode(ship.getPlanet());
+            shipTypes[row] = ship.getShipType() == null ? NO_SHIP_TYPE : (byte) ship.getShipType().ordinal();
+            prodDays[row] = prodDay;
+            speeds[row] = ship.getSpeed();
+            crewSizes[row] = ship.getCrewSize();
+            ratings[row] = ship.getRating();
+            index(row, ship.getUsed());
+        }
+
+        /**
+         * Moves the last row into the freed slot so that the columns stay dense.
+         */
+        private void remove(Long id) {
+            Integer row = rowsById.remove(id);
+            if (row == null) {
+                return;
+            }
+            unindex(row);
+            int last = --size;
+            if (row != last) {
+                Boolean lastUsed = isUsed(last);
+                unindex(last);
+                ids[row] = ids[last];
+                names[row] = names[last];
+                planetCodes[row] = planetCodes[last];
+                shipTypes[row] = shipTypes[last];
+                prodDays[row] = prodDays[last];
+                speeds[row] = speeds[last];
+                crewSizes[row] = crewSizes[last];
+                ratings[row] = ratings[last];
+                index(row, lastUsed);
+                rowsById.put(ids[row], row);
+            }
+            names[last] = null;
+        }
+
+        private void index(int row, Boolean isUsed) {
+            if (isUsed != null) {
+                (isUsed ? used : unused).add(row);
+            }
+            if (shipTypes[row] != NO_SHIP_TYPE) {
+                byShipType[shipTypes[row]].add(row);
+            }
+            byPlanet.get(planetCodes[row]).add(row);
+            byYear.computeIfAbsent(yearOf(prodDays[row]), year -> new RoaringBitmap()).add(row);
+        }
+
+        private void unindex(int row) {
+            used.remove(row);
+            unused.remove(row);
+            if (shipTypes[row] != NO_SHIP_TYPE) {
+                byShipType[shipTypes[row]].remove(row);
+            }
+            byPlanet.get(planetCodes[row]).remove(row);
+            int year = yearOf(prodDays[row]);
+            RoaringBitmap rows = byYear.get(year);
+            rows.remove(row);
+            if (rows.isEmpty()) {
+                byYear.remove(year);
+            }
+        }
+
+        private Ship ship(int row, ShipColumnStore store) {
+            Ship ship = new Ship();
+            ship.setId(ids[row]);
+            ship.setName(names[row]);
+            ship.setPlanet(planets.get(planetCodes[row]));
+            ship.setShipType(shipTypes[row] == NO_SHIP_TYPE ? null : SHIP_TYPES[shipTypes[row]]);
+            ship.setProdDate(new Date(store.midnight(prodDays[row])));
+            ship.setUsed(isUsed(row));
+            ship.setSpeed(speeds[row]);
+            ship.setCrewSize(crewSizes[row]);
+            ship.setRating(ratings[row]);
+            return ship;
+        }
+
+        private int planetCode(String planet) {
+            return codesByPlanet.computeIfAbsent(planet, key -> {
+                planets.add(key);
+                byPlanet.add(new RoaringBitmap());
+                return planets.size() - 1;
+            });
+        }
+
+        private void allocate(int capacity) {
+            ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+            names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+            planetCodes = planetCodes == null ? new int[capacity] : Arrays.copyOf(planetCodes, capacity);
+            shipTypes = shipTypes == null ? new byte[capacity] : Arrays.copyOf(shipTypes, capacity);
+            prodDays = prodDays == null ? new int[capacity] : Arrays.copyOf(prodDays, capacity);
+            speeds = speeds == null ? new double[capacity] : Arrays.copyOf(speeds, capacity);
+            crewSizes = crewSizes == null ? new int[capacity] : Arrays.copyOf(crewSizes, capacity);
+            ratings = ratings == null ? new double[capacity] : Arrays.copyOf(ratings, capacity);
+        }
+    }
+}
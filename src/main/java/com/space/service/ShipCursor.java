@@ -0,0 +1,122 @@
+package com.space.service;
+
+import com.space.exception.BadRequestException;
+import com.space.model.Ship;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque continuation token for keyset pagination: remembers the sort value and id of the
+ * last ship on a page, so the next page seeks past it instead of skipping rows with OFFSET.
+ */
+public class ShipCursor {
+    private static final String ID = "id";
+    private static final String SPEED = "speed";
+    private static final String RATING = "rating";
+    private static final String PROD_DATE = "prodDate";
+
+    private final String fieldName;
+    private final Comparable<?> value;
+    private final Long id;
+
+    private ShipCursor(String fieldName, Comparable<?> value, Long id) {
+        this.fieldName = fieldName;
+        this.value = value;
+        this.id = id;
+    }
+
+    public static ShipCursor start(String fieldName) {
+        checkFieldName(fieldName);
+        return new ShipCursor(fieldName, null, null);
+    }
+
+    public static ShipCursor after(String fieldName, Ship ship) {
+        checkFieldName(fieldName);
+        return new ShipCursor(fieldName, valueOf(fieldName, ship), ship.getId());
+    }
+
+    public static ShipCursor decode(String token, String fieldName) {
+        checkFieldName(fieldName);
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(",", -1);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor is invalid", e);
+        }
+        if (parts.length != 3 || !parts[0].equals(fieldName)) {
+            throw new BadRequestException("Cursor does not match the requested order");
+        }
+        try {
+            return new ShipCursor(fieldName, parseValue(fieldName, parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor is invalid", e);
+        }
+    }
+
+    public String encode() {
+        String raw = fieldName + "," + formatValue() + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Sort toSort() {
+        return ID.equals(fieldName) ? Sort.by(ID) : Sort.by(fieldName).and(Sort.by(ID));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Specification<Ship> toSpecification() {
+        return (root, query, cb) -> {
+            if (id == null)
+                return null;
+            if (value == null)
+                return cb.greaterThan(root.get(ID), id);
+            Path<Comparable> path = root.get(fieldName);
+            Comparable seekValue = value;
+            return cb.or(cb.greaterThan(path, seekValue),
+                    cb.and(cb.equal(path, seekValue), cb.greaterThan(root.get(ID), id)));
+        };
+    }
+
+    private String formatValue() {
+        if (value == null)
+            return "";
+        if (value instanceof Date)
+            return String.valueOf(((Date) value).getTime());
+        return value.toString();
+    }
+
+    private static Comparable<?> valueOf(String fieldName, Ship ship) {
+        switch (fieldName) {
+            case SPEED:
+                return ship.getSpeed();
+            case RATING:
+                return ship.getRating();
+            case PROD_DATE:
+                return ship.getProdDate();
+            default:
+                return null;
+        }
+    }
+
+    private static Comparable<?> parseValue(String fieldName, String value) {
+        switch (fieldName) {
+            case SPEED:
+            case RATING:
+                return Double.valueOf(value);
+            case PROD_DATE:
+                return new Date(Long.parseLong(value));
+            default:
+                return null;
+        }
+    }
+
+    private static void checkFieldName(String fieldName) {
+        if (!ID.equals(fieldName) && !SPEED.equals(fieldName) && !RATING.equals(fieldName) && !PROD_DATE.equals(fieldName)) {
+            throw new BadRequestException("Cursor pagination is not supported for " + fieldName);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.space.service;
+
+import com.space.model.ShipChangeEvent;
+
+import java.util.List;
+
+/**
+ * Receives ship change events from the outbox, in the order they were written. Delivery is at
+ * least once: a batch comes again when the subscriber throws or the process stops before its
+ * checkpoint is saved, so handling an event twice has to be harmless.
+ */
+public interface ShipEventSubscriber {
+
+    /**
+     * Key of the subscriber's checkpoint, it has to stay the same across restarts.
+     */
+    String getName();
+
+    void onEvents(List<ShipChangeEvent> events);
+}
@@ -0,0 +1,265 @@
+package com.space.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.space.exception.BadRequestException;
+import com.space.model.Ship;
+import com.space.model.ShipImportFormat;
+import com.space.model.ShipImportReport;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams a CSV or NDJSON file into the ship table. The calling thread cuts the input into
+ * chunks of lines, worker threads parse, validate and rate them, and one writer thread inserts
+ * the accepted ships of a chunk in one transaction. Stages hand chunks over through bounded
+ * queues, so a slow database stalls the reader instead of buffering the file in memory.
+ * <p>
+ * A row that fails to parse or validate is reported with its line number and skipped, a
+ * failing insert stops the import, leaving the chunks inserted before it in place.
+ */
+@Component
+public class ShipImporter {
+    private static final Chunk END_OF_LINES = new Chunk(0, Collections.emptyList());
+    private static final List<Ship> END_OF_SHIPS = new ArrayList<>(0);
+
+    private final ShipRepository shipRepository;
+    private final ShipChangeNotifier changeNotifier;
+    private final ShipOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader shipReader;
+
+    @Value("${ship.bulk.batch-size}")
+    private int batchSize;
+
+    @Value("${ship.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${ship.import.threads}")
+    private int threads;
+
+    @Value("${ship.import.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${ship.import.max-reported-rejections}")
+    private int maxReportedRejections;
+
+    @Autowired
+    public ShipImporter(ShipRepository shipRepository, ShipChangeNotifier changeNotifier, ShipOutbox outbox,
+                        PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.shipRepository = shipRepository;
+        this.changeNotifier = changeNotifier;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shipReader = objectMapper.readerFor(Ship.class);
+    }
+
+    /**
+     * @param validator checks a parsed ship and sets its rating, throwing
+     *                  {@link BadRequestException} for a ship to reject
+     */
+    public ShipImportReport importShips(BufferedReader reader, ShipImportFormat format, Consumer<Ship> validator) {
+        long start = System.nanoTime();
+        Run run;
+        try {
+            if (format == ShipImportFormat.CSV) {
+                run = new Run(new CsvShipParser(reader.readLine()), validator, 2);
+            } else {
+                run = new Run(this::parseJson, validator, 1);
+            }
+            run.execute(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<ShipImportReport.Rejection> rejections = new ArrayList<>(run.rejections);
+        rejections.sort(Comparator.comparingLong(ShipImportReport.Rejection::getLine));
+        return new ShipImportReport(run.rows.get(), run.imported.get(), run.rejected.get(), rejections,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Ship parseJson(String line) {
+        try {
+            return shipReader.readValue(line);
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed JSON");
+        }
+    }
+
+    private static class Chunk {
+        private final long firstLine;
+        private final List<String> lines;
+
+        private Chunk(long firstLine, List<String> lines) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+        }
+    }
+
+    private class Run {
+        private final Function<String, Ship> parser;
+        private final Consumer<Ship> validator;
+        private final long firstLine;
+        private final BlockingQueue<Chunk> lines = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<List<Ship>> ships = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final ConcurrentLinkedQueue<ShipImportReport.Rejection> rejections = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        private Run(Function<String, Ship> parser, Consumer<Ship> validator, long firstLine) {
+            this.parser = parser;
+            this.validator = validator;
+            this.firstLine = firstLine;
+        }
+
+        /**
+         * Once a stage fails the others keep taking from their queues without doing the work,
+         * so no thread is left blocked on a full queue.
+         */
+        private void execute(BufferedReader reader) throws IOException {
+            ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+            try {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    workers.add(executor.submit(() -> {
+                        validateChunks();
+                        return null;
+                    }));
+                }
+                Future<?> writer = executor.submit(() -> {
+                    insertChunks();
+                    return null;
+                });
+
+                try {
+                    readChunks(reader);
+                } finally {
+                    for (int i = 0; i < threads; i++) {
+                        lines.put(END_OF_LINES);
+                    }
+                    for (Future<?> worker : workers) {
+                        worker.get();
+                    }
+                    ships.put(END_OF_SHIPS);
+                    writer.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Import failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+                if (imported.get() > 0) {
+                    changeNotifier.fleetChanged();
+                }
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        }
+
+        private void readChunks(BufferedReader reader) throws IOException, InterruptedException {
+            long line = firstLine;
+            List<String> chunk = new ArrayList<>(chunkSize);
+            for (String text = reader.readLine(); text != null && failure.get() == null; text = reader.readLine()) {
+                chunk.add(text);
+                if (chunk.size() == chunkSize) {
+                    lines.put(new Chunk(line, chunk));
+                    line += chunkSize;
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                lines.put(new Chunk(line, chunk));
+            }
+        }
+
+        private void validateChunks() throws InterruptedException {
+            for (Chunk chunk = lines.take(); chunk != END_OF_LINES; chunk = lines.take()) {
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    List<Ship> accepted = new ArrayList<>(chunk.lines.size());
+                    long line = chunk.firstLine;
+                    for (String text : chunk.lines) {
+                        if (!text.trim().isEmpty()) {
+                            rows.incrementAndGet();
+                            try {
+                                Ship ship = parser.apply(text);
+                                if (ship == null) {
+                                    throw new BadRequestException("Ship is empty");
+                                }
+                                validator.accept(ship);
+                                accepted.add(ship);
+                            } catch (BadRequestException e) {
+                                reject(line, e.getMessage());
+                            }
+                        }
+                        line++;
+                    }
+                    if (!accepted.isEmpty()) {
+                        ships.put(accepted);
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+
+        private void insertChunks() throws InterruptedException {
+            while (true) {
+                List<Ship> chunk = ships.take();
+                if (chunk == END_OF_SHIPS) {
+                    return;
+                }
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    transactionTemplate.execute(status -> {
+                        shipRepository.insertAll(chunk, batchSize);
+                        outbox.fleetChanged();
+                        return null;
+                    });
+                    imported.addAndGet(chunk.size());
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+
+        private void reject(long line, String error) {
+            if (rejected.incrementAndGet() <= maxReportedRejections) {
+                rejections.add(new ShipImportReport.Rejection(line, error));
+            }
+        }
+    }
+}
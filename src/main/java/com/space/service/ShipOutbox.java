@@ -0,0 +1,122 @@
+package com.space.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.space.model.Ship;
+import com.space.model.ShipChangeEvent;
+import com.space.model.ShipChangeType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The ship_outbox table. Events are appended with the connection of the current transaction,
+ * so an event is committed or rolled back together with the change it describes. Nothing is
+ * appended while ship.outbox.enabled is off, as there is nobody to deliver the events and remove them.
+ */
+@Component
+public class ShipOutbox {
+    private static final String INSERT =
+            "INSERT INTO ship_outbox (eventType, shipId, payload, origin, createdAt) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter shipWriter;
+    private final ObjectReader shipReader;
+    private final String origin = UUID.randomUUID().toString();
+
+    @Value("${ship.outbox.enabled}")
+    private boolean enabled;
+
+    @Autowired
+    public ShipOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shipWriter = objectMapper.writerFor(Ship.class);
+        this.shipReader = objectMapper.readerFor(Ship.class);
+    }
+
+    /**
+     * Tells the events written by this application apart from those of other processes sharing
+     * the database, such as the ImportShips command. A new id is taken on every start.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void created(Ship ship) {
+        append(ShipChangeType.CREATED, ship.getId(), ship);
+    }
+
+    public void createdAll(List<Ship> ships, int batchSize) {
+        if (!enabled) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(INSERT, ships, batchSize, (statement, ship) -> {
+            statement.setString(1, ShipChangeType.CREATED.name());
+            statement.setLong(2, ship.getId());
+            statement.setString(3, writeShip(ship));
+            statement.setString(4, origin);
+            statement.setTimestamp(5, now);
+        });
+    }
+
+    public void updated(Ship ship) {
+        append(ShipChangeType.UPDATED, ship.getId(), ship);
+    }
+
+    public void deleted(Long id) {
+        append(ShipChangeType.DELETED, id, null);
+    }
+
+    public void fleetChanged() {
+        append(ShipChangeType.FLEET_CHANGED, null, null);
+    }
+
+    public List<ShipChangeEvent> findAfter(long eventId, int limit) {
+        return jdbcTemplate.query("SELECT id, eventType, shipId, payload, origin, createdAt FROM ship_outbox " +
+                        "WHERE id > ? ORDER BY id LIMIT " + limit,
+                (rows, i) -> new ShipChangeEvent(rows.getLong("id"),
+                        ShipChangeType.valueOf(rows.getString("eventType")),
+                        rows.getObject("shipId", Long.class),
+                        readShip(rows.getString("payload")),
+                        rows.getString("origin"),
+                        rows.getTimestamp("createdAt")),
+                eventId);
+    }
+
+    public int deleteUpTo(long eventId) {
+        return jdbcTemplate.update("DELETE FROM ship_outbox WHERE id <= ?", eventId);
+    }
+
+    private void append(ShipChangeType type, Long shipId, Ship ship) {
+        if (enabled) {
+            jdbcTemplate.update(INSERT, type.name(), shipId, ship == null ? null : writeShip(ship), origin,
+                    new Timestamp(System.currentTimeMillis()));
+        }
+    }
+
+    private String writeShip(Ship ship) {
+        try {
+            return shipWriter.writeValueAsString(ship);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ship " + ship.getId() + " cannot be written as JSON", e);
+        }
+    }
+
+    private Ship readShip(String payload) {
+        try {
+            return payload == null ? null : shipReader.readValue(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.space.service;
+
+import com.space.model.ShipChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers the outbox to every subscriber in batches of ship.outbox.batch-size. Each subscriber
+ * has a checkpoint row with the last event id it processed, saved after each successful batch.
+ * A subscriber that throws keeps its checkpoint and gets the same batch on the next run, while
+ * the others carry on. Events are removed from the outbox once every checkpoint row has passed
+ * them, including the rows of subscribers that are not registered right now, so one that
+ * unsubscribes or restarts picks up where it stopped. Delete the row of a subscriber that is gone
+ * for good, or the outbox keeps its events.
+ */
+@Component
+public class ShipOutboxDispatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(ShipOutboxDispatcher.class);
+
+    private final ShipOutbox outbox;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<ShipEventSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Value("${ship.outbox.enabled}")
+    private boolean enabled;
+
+    @Value("${ship.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${ship.outbox.gap-timeout-millis}")
+    private long gapTimeoutMillis;
+
+    @Autowired
+    public ShipOutboxDispatcher(ShipOutbox outbox, JdbcTemplate jdbcTemplate,
+                                ObjectProvider<ShipEventSubscriber> subscriberBeans) {
+        this.outbox = outbox;
+        this.jdbcTemplate = jdbcTemplate;
+        subscriberBeans.orderedStream().forEach(subscribers::add);
+    }
+
+    public void subscribe(ShipEventSubscriber subscriber) {
+        checkpoint(subscriber.getName());
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(ShipEventSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @Scheduled(fixedDelayString = "${ship.outbox.dispatch-interval-millis}")
+    public void scheduledDispatch() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    public synchronized void dispatch() {
+        for (ShipEventSubscriber subscriber : subscribers) {
+            deliver(subscriber);
+        }
+        Long processedByAll = jdbcTemplate.queryForObject(
+                "SELECT MIN(lastEventId) FROM ship_outbox_checkpoint", Long.class);
+        outbox.deleteUpTo(processedByAll == null ? Long.MAX_VALUE : processedByAll);
+    }
+
+    private void deliver(ShipEventSubscriber subscriber) {
+        long checkpoint = checkpoint(subscriber.getName());
+        while (true) {
+            List<ShipChangeEvent> events = committed(outbox.findAfter(checkpoint, batchSize), checkpoint);
+            if (events.isEmpty()) {
+                return;
+            }
+            try {
+                subscriber.onEvents(events);
+            } catch (RuntimeException e) {
+                LOG.warn("Subscriber {} failed, events after {} will be delivered again", subscriber.getName(), checkpoint, e);
+                return;
+            }
+            checkpoint = events.get(events.size() - 1).getId();
+            jdbcTemplate.update("UPDATE ship_outbox_checkpoint SET lastEventId = ? WHERE subscriber = ?",
+                    checkpoint, subscriber.getName());
+        }
+    }
+
+    /**
+     * An event id is taken when its transaction inserts it but only becomes visible on commit, so
+     * a missing id may still turn up and the events behind it are held back. Once the event after
+     * the gap is older than ship.outbox.gap-timeout-millis the missing id is taken to belong to a
+     * rolled back transaction.
+     */
+    private List<ShipChangeEvent> committed(List<ShipChangeEvent> events, long checkpoint) {
+        long expected = checkpoint + 1;
+        long settled = System.currentTimeMillis() - gapTimeoutMillis;
+        for (int i = 0; i < events.size(); i++) {
+            ShipChangeEvent event = events.get(i);
+            if (event.getId() != expected && event.getCreatedAt().getTime() > settled) {
+                return events.subList(0, i);
+            }
+            expected = event.getId() + 1;
+        }
+        return events;
+    }
+
+    private long checkpoint(String subscriber) {
+        List<Long> checkpoints = jdbcTemplate.queryForList(
+                "SELECT lastEventId FROM ship_outbox_checkpoint WHERE subscriber = ?", Long.class, subscriber);
+        if (!checkpoints.isEmpty()) {
+            return checkpoints.get(0);
+        }
+        jdbcTemplate.update("INSERT INTO ship_outbox_checkpoint (subscriber, lastEventId) VALUES (?, 0)", subscriber);
+        return 0;
+    }
+}
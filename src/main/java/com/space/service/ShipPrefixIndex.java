@@ -0,0 +1,223 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipSearchField;
+import com.space.model.ShipSuggestion;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct ship names and planets with the number of ships carrying each, in a trie over their
+ * lower-cased characters. Every node keeps the MAX_LIMIT values of its subtree that most ships
+ * carry, so completing a prefix walks the prefix and copies a ready list, however many values
+ * start with it. Readers never lock: the ranked lists are immutable and replaced whole. Writers are
+ * serialized and the startup and bulk rebuilds swap in a fresh trie.
+ */
+@Component
+public class ShipPrefixIndex implements ShipChangeListener, ApplicationListener<ContextRefreshedEvent> {
+    public static final int MAX_LIMIT = 100;
+
+    private static final char SEPARATOR = '\u0000';
+    // most ships first, then alphabetically ignoring case
+    private static final Comparator<Ranked> RANK =
+            Comparator.comparingInt((Ranked ranked) -> ranked.count).reversed().thenComparing(ranked -> ranked.key);
+
+    private final ShipRepository shipRepository;
+
+    private volatile Map<ShipSearchField, Node> roots = emptyRoots();
+    private volatile Map<Long, String[]> ships = new HashMap<>();
+
+    @Autowired
+    public ShipPrefixIndex(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        Map<ShipSearchField, Node> newRoots = emptyRoots();
+        Map<Long, String[]> newShips = new HashMap<>();
+        for (Object[] row : shipRepository.findSearchableFields()) {
+            String[] fields = {(String) row[1], (String) row[2]};
+            newShips.put((Long) row[0], fields);
+            for (ShipSearchField field : ShipSearchField.values()) {
+                String value = fields[field.ordinal()];
+                if (value != null) {
+                    List<Node> path = newRoots.get(field).path(value, true);
+                    path.get(path.size() - 1).values.merge(value, 1, Integer::sum);
+                }
+            }
+        }
+        newRoots.values().forEach(ShipPrefixIndex::rank);
+        roots = newRoots;
+        ships = newShips;
+    }
+
+    @Override
+    public synchronized void shipSaved(Ship ship) {
+        String[] fields = {ship.getName(), ship.getPlanet()};
+        String[] old = ships.put(ship.getId(), fields);
+        if (old != null) {
+            update(old, -1);
+        }
+        update(fields, 1);
+    }
+
+    @Override
+    public synchronized void shipDeleted(Long id) {
+        String[] old = ships.remove(id);
+        if (old != null) {
+            update(old, -1);
+        }
+    }
+
+    @Override
+    public void fleetChanged() {
+        rebuild();
+    }
+
+    /**
+     * The {@code limit} values starting with {@code prefix}, ignoring case, that most ships carry,
+     * at most MAX_LIMIT.
+     */
+    public List<ShipSuggestion> complete(ShipSearchField field, String prefix, int limit) {
+        Node node = roots.get(field);
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length() && node != null; i++) {
+            node = node.children.get(lower.charAt(i));
+        }
+        if (node == null) {
+            return new ArrayList<>();
+        }
+        List<Ranked> top = node.top;
+        List<ShipSuggestion> suggestions = new ArrayList<>(Math.min(limit, top.size()));
+        for (Ranked ranked : top.subList(0, Math.min(limit, top.size()))) {
+            suggestions.add(new ShipSuggestion(ranked.value, ranked.count));
+        }
+        return suggestions;
+    }
+
+    private void update(String[] fields, int delta) {
+        for (ShipSearchField field : ShipSearchField.values()) {
+            String value = fields[field.ordinal()];
+            if (value != null) {
+                update(roots.get(field), value, delta);
+            }
+        }
+    }
+
+    /**
+     * Changes the count of {@code value} and re-ranks the nodes on its path, deepest first. A node
+     * whose list holds fewer than MAX_LIMIT values lists its whole subtree and is re-ranked in
+     * place; a full list that loses ground is merged again from the node and its children.
+     */
+    private static void update(Node root, String value, int delta) {
+        List<Node> path = root.path(value, delta > 0);
+        if (path == null) {
+            return;
+        }
+        Node last = path.get(path.size() - 1);
+        Integer count = last.values.merge(value, delta, (a, b) -> a + b <= 0 ? null : a + b);
+        Ranked ranked = count == null ? null : new Ranked(value, count);
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node node = path.get(depth);
+            List<Ranked> top = new ArrayList<>(node.top);
+            boolean listed = top.removeIf(entry -> entry.value.equals(value));
+            if (delta > 0 || top.size() + (listed ? 1 : 0) < MAX_LIMIT) {
+                if (ranked != null) {
+                    int at = Collections.binarySearch(top, ranked, RANK);
+                    top.add(at < 0 ? -at - 1 : at, ranked);
+                }
+                node.top = Collections.unmodifiableList(top.size() > MAX_LIMIT ? new ArrayList<>(top.subList(0, MAX_LIMIT)) : top);
+            } else if (listed) {
+                node.top = merge(node);
+            }
+            if (depth > 0 && node.top.isEmpty()) {
+                path.get(depth - 1).children.remove(value.toLowerCase(Locale.ROOT).charAt(depth - 1));
+            }
+        }
+    }
+
+    private static void rank(Node node) {
+        node.children.values().forEach(ShipPrefixIndex::rank);
+        node.top = merge(node);
+    }
+
+    private static List<Ranked> merge(Node node) {
+        List<Ranked> candidates = new ArrayList<>();
+        node.values.forEach((value, count) -> candidates.add(new Ranked(value, count)));
+        node.children.values().forEach(child -> candidates.addAll(child.top));
+        candidates.sort(RANK);
+        return Collections.unmodifiableList(candidates.size() > MAX_LIMIT
+                ? new ArrayList<>(candidates.subList(0, MAX_LIMIT)) : candidates);
+    }
+
+    private static Map<ShipSearchField, Node> emptyRoots() {
+        Map<ShipSearchField, Node> roots = new EnumMap<>(ShipSearchField.class);
+        for (ShipSearchField field : ShipSearchField.values()) {
+            roots.put(field, new Node());
+        }
+        return roots;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        // values spelled by the path to this node, with their counts, only touched by writers
+        private final Map<String, Integer> values = new HashMap<>();
+        private volatile List<Ranked> top = Collections.emptyList();
+
+        /**
+         * The nodes from this one to the one of {@code value}, or null when it is missing and
+         * {@code create} is off.
+         */
+        private List<Node> path(String value, boolean create) {
+            String lower = value.toLowerCase(Locale.ROOT);
+            List<Node> path = new ArrayList<>(lower.length() + 1);
+            Node node = this;
+            path.add(node);
+            for (int i = 0; i < lower.length(); i++) {
+                Node child = node.children.get(lower.charAt(i));
+                if (child == null) {
+                    if (!create) {
+                        return null;
+                    }
+                    child = new Node();
+                    node.children.put(lower.charAt(i), child);
+                }
+                node = child;
+                path.add(node);
+            }
+            return path;
+        }
+    }
+
+    private static class Ranked {
+        private final String value;
+        private final String key;
+        private final int count;
+
+        private Ranked(String value, int count) {
+            this.value = value;
+            this.key = value.toLowerCase(Locale.ROOT) + SEPARATOR + value;
+            this.count = count;
+        }
+    }
+}
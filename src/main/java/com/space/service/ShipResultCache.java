@@ -0,0 +1,112 @@
+package com.space.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.space.model.ResultCacheStats;
+import com.space.model.Ship;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of list pages and counts. Keys are the normalized filter, sort and page prefixed
+ * by the fleet version, so every committed write makes all earlier results unreachable; they
+ * age out by size and TTL. Memory use is estimated from the number of ships a result holds.
+ * Requests reading from a replica bypass the cache, as the replica may lag behind the version.
+ */
+@Component
+public class ShipResultCache {
+    private static final int ENTRY_BYTES = 128;
+    private static final int SHIP_BYTES = 256;
+
+    private final FleetVersion fleetVersion;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final Cache<String, Object> cache;
+
+    @Autowired
+    public ShipResultCache(FleetVersion fleetVersion,
+                           @Value("${ship.result-cache.enabled}") boolean enabled,
+                           @Value("${ship.result-cache.max-bytes}") long maxBytes,
+                           @Value("${ship.result-cache.ttl-seconds}") long ttlSeconds) {
+        this.fleetVersion = fleetVersion;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(ShipResultCache::weigh)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public Page<Ship> page(ShipFilter filter, Pageable pageable, Supplier<Page<Ship>> loader) {
+        if (!enabled || !fleetVersion.isVisibleToReads()) {
+            return loader.get();
+        }
+        return (Page<Ship>) cache.get(key("page", filter, pageable), key -> loader.get());
+    }
+
+    public long count(ShipFilter filter, Supplier<Long> loader) {
+        if (!enabled || !fleetVersion.isVisibleToReads()) {
+            return loader.get();
+        }
+        return (Long) cache.get(key("count", filter, null), key -> loader.get());
+    }
+
+    public ResultCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        long estimatedBytes = cache.policy().eviction().get().weightedSize().orElse(0);
+        return new ResultCacheStats(enabled, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), cache.estimatedSize(), estimatedBytes, maxBytes);
+    }
+
+    /**
+     * Unset filters are left out and the rest are written in a fixed order, so requests that only
+     * differ in the order or spelling of their parameters share an entry. Values are length
+     * prefixed, so a name containing a separator cannot collide with another filter.
+     */
+    private String key(String kind, ShipFilter filter, Pageable pageable) {
+        StringBuilder key = new StringBuilder().append(fleetVersion.current()).append('|').append(kind);
+        append(key, "name", filter.getName());
+        append(key, "planet", filter.getPlanet());
+        append(key, "shipType", filter.getShipType());
+        append(key, "after", filter.getAfter());
+        append(key, "before", filter.getBefore());
+        append(key, "isUsed", filter.getIsUsed());
+        append(key, "minSpeed", filter.getMinSpeed());
+        append(key, "maxSpeed", filter.getMaxSpeed());
+        append(key, "minCrewSize", filter.getMinCrewSize());
+        append(key, "maxCrewSize", filter.getMaxCrewSize());
+        append(key, "minRating", filter.getMinRating());
+        append(key, "maxRating", filter.getMaxRating());
+        if (pageable != null) {
+            append(key, "page", pageable.getPageNumber());
+            append(key, "size", pageable.getPageSize());
+            for (Sort.Order order : pageable.getSort()) {
+                append(key, "sort", order.getProperty() + ":" + order.getDirection());
+            }
+        }
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, String name, Object value) {
+        if (value != null) {
+            String text = value.toString();
+            key.append('|').append(name).append('=').append(text.length()).append(':').append(text);
+        }
+    }
+
+    private static int weigh(String key, Object value) {
+        int ships = value instanceof Page ? ((Page<?>) value).getNumberOfElements() : 0;
+        return ENTRY_BYTES + 2 * key.length() + ships * SHIP_BYTES;
+    }
+}
@@ -1,32 +1,83 @@
 package com.space.service;
 
-import com.space.exception.InvalidIDException;
 import com.space.exception.ShipNotFoundException;
 import com.space.model.Ship;
+import com.space.model.ShipAggregate;
+import com.space.model.ShipBulkResult;
+import com.space.model.ShipFacets;
+import com.space.model.ShipGrouping;
+import com.space.model.ShipHistogram;
+import com.space.model.ShipHistogramField;
+import com.space.model.ShipImportFormat;
+import com.space.model.ShipImportReport;
+import com.space.model.ShipSearchField;
+import com.space.model.ShipSuggestion;
 import com.space.model.ShipType;
+import com.space.model.ShipVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.web.util.NestedServletException;
 
+import java.io.BufferedReader;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ShipService {
 
     Page<Ship> gelAllShips(Specification<Ship> specification, Pageable sortedByName);
 
+    Page<Ship> gelAllShips(ShipFilter filter, Pageable pageable);
+
     List<Ship> gelAllShips(Specification<Ship> specification);
 
+    List<Map<String, Object>> gelShipFields(Specification<Ship> specification, List<String> fields, Pageable pageable);
+
+    List<Ship> gelShipsAfter(Specification<Ship> specification, ShipCursor cursor, int pageSize);
+
+    void exportShips(Specification<Ship> specification, Sort sort, Consumer<Ship> consumer);
+
+    long countShips(Specification<Ship> specification);
+
+    long countShips(ShipFilter filter);
+
+    List<ShipAggregate> aggregateShips(Specification<Ship> specification, ShipGrouping grouping);
+
+    List<Ship> searchShips(ShipSearchField field, String text, Double minSimilarity, int limit);
+
+    List<ShipSuggestion> suggest(ShipSearchField field, String prefix, int limit);
+
+    int recomputeRatings();
+
+    ShipFacets facetShips(ShipFilter filter, int topPlanets);
+
+    ShipHistogram histogramShips(Specification<Ship> specification, ShipHistogramField field,
+                                 Double bucketWidth, Integer buckets);
+
     Ship createShip(Ship requestShip);
 
+    List<ShipBulkResult> createShips(List<Ship> ships);
+
+    ShipImportReport importShips(BufferedReader reader, ShipImportFormat format);
+
     Ship getShip(Long id) throws ShipNotFoundException;
 
-    Ship editShip(Long id, Ship ship) throws ShipNotFoundException;
+    ShipVersion getShipVersion(Long id) throws ShipNotFoundException;
 
-    void deleteById(Long id) throws ShipNotFoundException, NestedServletException;
+    Ship editShip(Long id, Ship ship, Set<Long> expectedVersions) throws ShipNotFoundException;
 
-    Long checkAndParseId(String id) throws InvalidIDException;
+    void deleteById(Long id) throws ShipNotFoundException;
+
+    int updateShips(ShipFilter filter, Ship changes);
+
+    int deleteShips(ShipFilter filter);
+
+    Long checkAndParseId(String id);
     
+    Specification<Ship> filterBy(ShipFilter filter);
+
     Specification<Ship> filterByPlanet(String planet);
 
     Specification<Ship> filterByName(String name);
@@ -0,0 +1,259 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipSearchField;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over ship name and planet. It serves the fuzzy ship search and, with
+ * ship.search.filter-enabled, narrows the name and planet substring filters to the ships whose
+ * trigrams contain the ones of the filter. The index only sees writes made through this
+ * application, so the filters should only use it where nothing else writes to the ship table.
+ * The index is rebuilt on startup and after bulk changes and is kept up to date ship by ship
+ * otherwise.
+ */
+@Component
+public class ShipTrigramIndex implements ShipChangeListener, ApplicationListener<ContextRefreshedEvent> {
+    private static final int GRAM = 3;
+
+    private final ShipRepository shipRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${ship.search.filter-enabled}")
+    private boolean filterEnabled;
+
+    @Value("${ship.search.max-candidates}")
+    private int maxCandidates;
+
+    private Index index = new Index();
+    private volatile boolean ready;
+    // writes reported while a rebuild loads the fleet, replayed on the new index, guarded by lock
+    private List<Consumer<Index>> pendingWrites;
+
+    @Autowired
+    public ShipTrigramIndex(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Loads the fleet into a new index. A ship saved or deleted while the fleet is loading may or
+     * may not be in the loaded rows, so such writes are recorded and applied to the new index
+     * again before it replaces the old one.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index newIndex = null;
+        try {
+            Index loaded = new Index();
+            for (Object[] row : shipRepository.findSearchableFields()) {
+                loaded.put((Long) row[0], (String) row[1], (String) row[2]);
+            }
+            newIndex = loaded;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (newIndex != null) {
+                    for (Consumer<Index> write : pendingWrites) {
+                        write.accept(newIndex);
+                    }
+                    index = newIndex;
+                    ready = true;
+                }
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        write(index -> index.put(ship.getId(), ship.getName(), ship.getPlanet()));
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        write(index -> index.remove(id));
+    }
+
+    @Override
+    public void fleetChanged() {
+        rebuild();
+    }
+
+    private void write(Consumer<Index> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(index);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the ships whose {@code field} may contain {@code text}, ignoring case, or null when
+     * the filter has to scan the table: the index is off or not built yet, the text is shorter
+     * than a trigram, or more than ship.search.max-candidates ships match.
+     */
+    public Set<Long> candidates(ShipSearchField field, String text) {
+        if (!filterEnabled || !ready || text.length() < GRAM) {
+            return null;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Map<String, Set<Long>> fieldPostings = index.postings.get(field);
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : trigrams(lower, false)) {
+                lists.add(fieldPostings.getOrDefault(gram, Collections.emptySet()));
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<Long> ids = new HashSet<>();
+            for (Long id : lists.get(0)) {
+                if (index.documents.get(id).values[field.ordinal()].contains(lower)) {
+                    ids.add(id);
+                    if (ids.size() > maxCandidates) {
+                        return null;
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the ships most similar to {@code text}, best first. Similarity is the Jaccard index
+     * of the padded trigram sets, so a few typos still score well.
+     */
+    public List<Long> similar(ShipSearchField field, String text, double minSimilarity, int limit) {
+        Set<String> query = trigrams(text.toLowerCase(Locale.ROOT), true);
+        Map<Long, Integer> overlaps = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Map<String, Set<Long>> fieldPostings = index.postings.get(field);
+            for (String gram : query) {
+                for (Long id : fieldPostings.getOrDefault(gram, Collections.emptySet())) {
+                    overlaps.merge(id, 1, Integer::sum);
+                }
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<Long, Integer> entry : overlaps.entrySet()) {
+                int overlap = entry.getValue();
+                int size = index.documents.get(entry.getKey()).gramCounts[field.ordinal()];
+                double similarity = (double) overlap / (query.size() + size - overlap);
+                if (similarity >= minSimilarity) {
+                    scores.put(entry.getKey(), similarity);
+                }
+            }
+            List<Long> ids = new ArrayList<>(scores.keySet());
+            ids.sort(Comparator.comparing((Long id) -> scores.get(id)).reversed().thenComparing(Comparator.naturalOrder()));
+            return ids.size() > limit ? new ArrayList<>(ids.subList(0, limit)) : ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Padded trigrams mark the start and the end of the text, which ranks whole-word matches
+     * higher. Every unpadded trigram of a substring is among the padded trigrams of the text.
+     */
+    private static Set<String> trigrams(String text, boolean padded) {
+        String source = padded ? "  " + text + " " : text;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= source.length(); i++) {
+            grams.add(source.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static class Index {
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<ShipSearchField, Map<String, Set<Long>>> postings = new EnumMap<>(ShipSearchField.class);
+
+        private Index() {
+            for (ShipSearchField field : ShipSearchField.values()) {
+                postings.put(field, new HashMap<>());
+            }
+        }
+
+        private void put(Long id, String name, String planet) {
+            remove(id);
+            Document document = new Document(name, planet);
+            for (ShipSearchField field : ShipSearchField.values()) {
+                Set<String> grams = trigrams(document.values[field.ordinal()], true);
+                document.gramCounts[field.ordinal()] = grams.size();
+                Map<String, Set<Long>> fieldPostings = postings.get(field);
+                for (String gram : grams) {
+                    fieldPostings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+                }
+            }
+            documents.put(id, document);
+        }
+
+        private void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (ShipSearchField field : ShipSearchField.values()) {
+                Map<String, Set<Long>> fieldPostings = postings.get(field);
+                for (String gram : trigrams(document.values[field.ordinal()], true)) {
+                    Set<Long> ids = fieldPostings.get(gram);
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        fieldPostings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Document {
+        private final String[] values;
+        private final int[] gramCounts = new int[ShipSearchField.values().length];
+
+        private Document(String name, String planet) {
+            values = new String[]{lower(name), lower(planet)};
+        }
+
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
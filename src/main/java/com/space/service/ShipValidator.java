@@ -0,0 +1,111 @@
+package com.space.service;
+
+import com.space.exception.BadRequestException;
+import com.space.exception.ShipNotFoundException;
+import com.space.exception.ShipTypeException;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * The field rules a ship has to meet and its rating, shared by the REST API and the imports,
+ * including the ImportShips command, which runs without the rest of the service.
+ */
+@Component
+public class ShipValidator {
+    private final RatingCalculator ratingCalculator;
+
+    @Autowired
+    public ShipValidator(RatingCalculator ratingCalculator) {
+        this.ratingCalculator = ratingCalculator;
+    }
+
+    /**
+     * Checks and rates an imported ship. Unlike a created one it is rejected without a ship type.
+     */
+    public void prepareImported(Ship ship) {
+        if (ship.getShipType() == null) {
+            throw new BadRequestException("Ship type is incorrect");
+        }
+        checkShipParameters(ship);
+        ship.setRating(calculateRating(ship));
+    }
+
+    public Double calculateRating(Ship ship) throws ShipNotFoundException {
+        if (ship != null) {
+            Boolean isUsed = ship.getUsed();
+            if (isUsed == null) {
+                isUsed = false;
+                ship.setUsed(false);
+            }
+            return ratingCalculator.rate(ship.getSpeed(), isUsed, ratingCalculator.productionYear(ship.getProdDate()));
+        } else {
+            throw new ShipNotFoundException("Ship is null");
+        }
+    }
+
+    public void checkShipParameters(Ship ship) {
+        String name = ship.getName();
+        checkName(name);
+        String planet = ship.getPlanet();
+        checkPlanet(planet);
+        ShipType type = ship.getShipType();
+        try {
+            checkShipType(type);
+        } catch (ShipTypeException e) {
+            e.printStackTrace();
+        }
+        Date prodDate = ship.getProdDate();
+        if (prodDate == null) {
+            throw new BadRequestException("Production date is invalid");
+        }
+        checkYear(ratingCalculator.productionYear(prodDate), prodDate);
+        Boolean isUsed = ship.getUsed();
+        if (isUsed == null) {
+            isUsed = false;
+        }
+        Double speed = ship.getSpeed();
+        checkSpeed(speed);
+        Integer crewSize = ship.getCrewSize();
+        checkCrewSize(crewSize);
+    }
+
+    public void checkCrewSize(Integer crewSize) {
+        if (crewSize == null || crewSize < 1 || crewSize > 9999) {
+            throw new BadRequestException("Crew size is invalid");
+        }
+    }
+
+    public void checkSpeed(Double speed) {
+        if (speed == null || speed < (0.01) || speed > (0.99)) {
+            throw new BadRequestException("Speed is invalid");
+        }
+    }
+
+    public void checkYear(int year, Date prodDate) {
+        if (year < 2800 || year > ratingCalculator.getReferenceYear() || prodDate == null) {
+            throw new BadRequestException("Production date is invalid");
+        }
+    }
+
+    private void checkShipType(ShipType type) throws ShipTypeException {
+        if (type == null) {
+            throw new ShipTypeException("Ship type is incorrect");
+        }
+    }
+
+    public void checkPlanet(String planet) {
+        if (planet == null || planet.isEmpty() || planet.length() > 50) {
+            throw new BadRequestException("Planet is incorrect");
+        }
+    }
+
+    public void checkName(String name) {
+        if (name == null || name.isEmpty() || name.length() > 50) {
+            throw new BadRequestException("Ship name is incorrect");
+        }
+    }
+}
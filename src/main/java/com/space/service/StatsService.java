@@ -0,0 +1,65 @@
+package com.space.service;
+
+import com.space.model.CacheStats;
+import com.space.model.ConnectionPoolStats;
+import com.space.model.IndexAdvice;
+import com.space.model.ResultCacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class StatsService {
+    private final SessionFactory sessionFactory;
+    private final ShipResultCache resultCache;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final IndexAdvisor indexAdvisor;
+
+    @Autowired
+    public StatsService(EntityManagerFactory entityManagerFactory, ShipResultCache resultCache,
+                        ConnectionPoolMetrics connectionPoolMetrics, IndexAdvisor indexAdvisor) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.resultCache = resultCache;
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.indexAdvisor = indexAdvisor;
+    }
+
+    public IndexAdvice getIndexAdvice() {
+        return indexAdvisor.advise();
+    }
+
+    public List<String> createSuggestedIndexes() {
+        return indexAdvisor.createSuggested();
+    }
+
+    public Map<String, ConnectionPoolStats> getPoolStats() {
+        return connectionPoolMetrics.getStats();
+    }
+
+    public ResultCacheStats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+
+    public CacheStats getCacheStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, CacheStats.Region> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, new CacheStats.Region(region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        return new CacheStats(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled(),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), regions);
+    }
+}
@@ -0,0 +1,45 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds the deletedAt tombstone column to ship and creates ship_archive. A Java migration, as
+ * the dev database is created by test.sql with the column already in place and MySQL has no
+ * ADD COLUMN IF NOT EXISTS.
+ */
+public class V3__Ship_soft_delete extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            if (!Columns.exists(connection, "ship", "deletedAt")) {
+                statement.execute("ALTER TABLE ship ADD COLUMN deletedAt TIMESTAMP NULL");
+                // the archive purger looks tombstones up by it
+                statement.execute("CREATE INDEX idx_ship_deletedat ON ship (deletedAt)");
+            }
+            statement.execute("CREATE TABLE IF NOT EXISTS ship_archive\n" +
+                    "(\n" +
+                    "    id       BIGINT(20)  NOT NULL,\n" +
+                    "    name     VARCHAR(50) NULL,\n" +
+                    "    planet   VARCHAR(50) NULL,\n" +
+                    "    shipType VARCHAR(9)  NULL,\n" +
+                    "    prodDate date        NULL,\n" +
+                    "    isUsed   BIT(1)      NULL,\n" +
+                    "    speed    DOUBLE      NULL,\n" +
+                    "    crewSize INT(4)      NULL,\n" +
+                    "    rating   DOUBLE      NULL,\n" +
+                    "    version  BIGINT(20)  NOT NULL DEFAULT 0,\n" +
+                    "    lastModified TIMESTAMP NULL,\n" +
+                    "    deletedAt TIMESTAMP NULL,\n" +
+                    "    archivedAt TIMESTAMP NULL,\n" +
+                    "    PRIMARY KEY (id)\n" +
+                    ")");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds the version and lastModified columns behind ETags and optimistic locking. A database
+ * created by the original init.sql is baselined at V1 and gets them here, one created by the
+ * current init.sql or by test.sql already has them.
+ */
+public class V5__Ship_version extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            if (!Columns.exists(connection, "ship", "version")) {
+                statement.execute("ALTER TABLE ship ADD COLUMN version BIGINT(20) NOT NULL DEFAULT 0");
+            }
+            if (!Columns.exists(connection, "ship", "lastModified")) {
+                statement.execute("ALTER TABLE ship ADD COLUMN lastModified TIMESTAMP NULL");
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Range filters and sorts on their own: speed, rating, prodDate and crewSize
+CREATE INDEX idx_ship_speed ON ship (speed);
+CREATE INDEX idx_ship_rating ON ship (rating);
+CREATE INDEX idx_ship_proddate ON ship (prodDate);
+CREATE INDEX idx_ship_crewsize ON ship (crewSize);
+
+-- Dashboard filters: ship type and usage first, then the sorted or ranged column
+CREATE INDEX idx_ship_shiptype_isused_rating ON ship (shipType, isUsed, rating);
+CREATE INDEX idx_ship_shiptype_isused_speed ON ship (shipType, isUsed, speed);
+CREATE INDEX idx_ship_shiptype_isused_proddate ON ship (shipType, isUsed, prodDate);
+
+-- Facets, aggregates and planet suggestions group by planet
+CREATE INDEX idx_ship_planet ON ship (planet);
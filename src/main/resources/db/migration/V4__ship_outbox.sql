@@ -0,0 +1,20 @@
+-- Ship change events, written in the transaction of the change and delivered by ShipOutboxDispatcher
+CREATE TABLE IF NOT EXISTS ship_outbox
+(
+    id        BIGINT(20)  NOT NULL AUTO_INCREMENT,
+    eventType VARCHAR(13) NOT NULL,
+    shipId    BIGINT(20)  NULL,
+    payload   TEXT        NULL,
+    -- process that wrote the event, so an application can skip the changes it made itself
+    origin    VARCHAR(36) NULL,
+    createdAt TIMESTAMP   NULL,
+    PRIMARY KEY (id)
+);
+
+-- Id of the last event each subscriber has processed
+CREATE TABLE IF NOT EXISTS ship_outbox_checkpoint
+(
+    subscriber  VARCHAR(100) NOT NULL,
+    lastEventId BIGINT(20)   NOT NULL,
+    PRIMARY KEY (subscriber)
+);
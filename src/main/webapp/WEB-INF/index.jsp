@@ -160,11 +160,15 @@
         <div class="form-row">
             <div class="form-group col-md-6">
                 <label for="inputName">Name</label>
-                <input type="text" class="form-control" id="inputName" placeholder="Name">
+                <input type="text" class="form-control" id="inputName" placeholder="Name" list="nameSuggestions"
+                       oninput="suggest('${pageContext.request.contextPath}', this, 'NAME', 'nameSuggestions')">
+                <datalist id="nameSuggestions"></datalist>
             </div>
             <div class="form-group col-md-6">
                 <label for="inputPlanet">Planet</label>
-                <input type="text" class="form-control" id="inputPlanet" placeholder="Planet">
+                <input type="text" class="form-control" id="inputPlanet" placeholder="Planet" list="planetSuggestions"
+                       oninput="suggest('${pageContext.request.contextPath}', this, 'PLANET', 'planetSuggestions')">
+                <datalist id="planetSuggestions"></datalist>
             </div>
         </div>
         <div class="form-row">
@@ -29,9 +29,30 @@ function post(requestUrl, body) {
     return Httpreq;
 }
 
+function suggest(root, input, field, listId) {
+    let Httpreq = new XMLHttpRequest();
+    Httpreq.open("GET", root + "/rest/ships/suggest?field=" + field + "&prefix=" + encodeURIComponent(input.value), true);
+    Httpreq.onload = function () {
+        if (Httpreq.status !== 200) {
+            return;
+        }
+        let list = document.getElementById(listId);
+        list.innerHTML = "";
+        let suggestions = JSON.parse(Httpreq.responseText);
+        for (let i = 0; i < suggestions.length; i++) {
+            let option = document.createElement("option");
+            option.value = suggestions[i].value;
+            option.label = suggestions[i].value + " (" + suggestions[i].count + ")";
+            list.appendChild(option);
+        }
+    };
+    Httpreq.send(null);
+}
+
 function loadContent(root, suffix, currentPage) {
-    let objects = JSON.parse(Get(root + "/rest/ships" + suffix).responseText);
-    let shipsCount = Get(root + "/rest/ships/count" + suffix).responseText;
+    let page = JSON.parse(Get(root + "/rest/ships/page" + suffix).responseText);
+    let objects = page.ships;
+    let shipsCount = page.count;
     document.getElementById("count").innerText = "Ships found: " + shipsCount;
     let table = document.getElementById("mainTable");
     table.innerHTML = "";
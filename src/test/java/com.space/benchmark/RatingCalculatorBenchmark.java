@@ -0,0 +1,75 @@
+package com.space.benchmark;
+
+import com.space.service.BigDecimalRatingCalculator;
+import com.space.service.PrimitiveRatingCalculator;
+import com.space.service.RatingCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rates a batch of ships with the old Calendar + BigDecimal implementation and with
+ * PrimitiveRatingCalculator. Run with -prof gc to compare allocation rates as well.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.space.benchmark.RatingCalculatorBenchmark} or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RatingCalculatorBenchmark {
+    private static final int SHIPS = 10_000;
+
+    private final RatingCalculator bigDecimal = new BigDecimalRatingCalculator(3019);
+    private final RatingCalculator primitive = new PrimitiveRatingCalculator(3019);
+
+    private double[] speeds;
+    private boolean[] used;
+    private Date[] prodDates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        speeds = new double[SHIPS];
+        used = new boolean[SHIPS];
+        prodDates = new Date[SHIPS];
+        for (int i = 0; i < SHIPS; i++) {
+            speeds[i] = 0.01 + random.nextInt(99) / 100.0;
+            used[i] = random.nextBoolean();
+            prodDates[i] = new GregorianCalendar(2700 + random.nextInt(220), random.nextInt(12), 1 + random.nextInt(28)).getTime();
+        }
+    }
+
+    @Benchmark
+    public double bigDecimalCalculator() {
+        return rateAll(bigDecimal);
+    }
+
+    @Benchmark
+    public double primitiveCalculator() {
+        return rateAll(primitive);
+    }
+
+    private double rateAll(RatingCalculator calculator) {
+        double sum = 0;
+        for (int i = 0; i < SHIPS; i++) {
+            sum += calculator.rate(speeds[i], used[i], calculator.productionYear(prodDates[i]));
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RatingCalculatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.space.benchmark;
+
+import com.space.config.AppConfig;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.service.ShipService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares GET /rest/ships/count served by SELECT COUNT(*) with the old way of loading
+ * every matching ship and taking the size of the list. The count should stay flat while
+ * the fleet grows, the list size grows linearly with the table.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.space.benchmark.ShipCountBenchmark} or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShipCountBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    public int fleetSize;
+
+    private AnnotationConfigApplicationContext context;
+    private ShipService service;
+    private Specification<Ship> specification;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("dev");
+        context.register(AppConfig.class);
+        context.refresh();
+
+        service = context.getBean(ShipService.class);
+        specification = Specification.where(service.filterByShipType(null));
+        fillFleet(new JdbcTemplate(context.getBean(DataSource.class)), fleetSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long selectCount() {
+        return service.countShips(specification);
+    }
+
+    @Benchmark
+    public int loadAllAndSize() {
+        return service.gelAllShips(specification).size();
+    }
+
+    private static void fillFleet(JdbcTemplate jdbcTemplate, int size) {
+        Random random = new Random(42);
+        ShipType[] types = ShipType.values();
+        String[] planets = {"Mars", "Jupiter", "Earth", "Neptune", "Mercury", "Saturn", "Venus"};
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            double speed = 0.01 + random.nextInt(99) / 100.0;
+            batch.add(new Object[]{"Ship " + i, planets[random.nextInt(planets.length)],
+                    types[random.nextInt(types.length)].name(),
+                    Date.valueOf((2800 + random.nextInt(220)) + "-01-01"), random.nextBoolean(),
+                    speed, 1 + random.nextInt(9999), speed});
+            if (batch.size() == 1000) {
+                insert(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO ship(name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShipCountBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
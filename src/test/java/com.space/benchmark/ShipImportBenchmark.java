@@ -0,0 +1,104 @@
+package com.space.benchmark;
+
+import com.space.config.AppConfig;
+import com.space.model.ShipImportFormat;
+import com.space.model.ShipImportReport;
+import com.space.model.ShipType;
+import com.space.service.ShipService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to import a CSV file of a million ships into the dev H2 database through the import
+ * pipeline, with one and with four parse and validate workers. The table is emptied of
+ * imported ships before every import.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.space.benchmark.ShipImportBenchmark} or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ShipImportBenchmark {
+    private static final int ROWS = 1_000_000;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private AnnotationConfigApplicationContext context;
+    private ShipService service;
+    private JdbcTemplate jdbcTemplate;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty("ship.import.threads", String.valueOf(threads));
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("dev");
+        context.register(AppConfig.class);
+        context.refresh();
+
+        service = context.getBean(ShipService.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        file = Files.createTempFile("ships", ShipImportFormat.CSV.getExtension());
+        writeFleet(file, ROWS);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        jdbcTemplate.update("DELETE FROM ship WHERE id > 40");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public long importCsv() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ShipImportReport report = service.importShips(reader, ShipImportFormat.CSV);
+            return report.getImported();
+        }
+    }
+
+    private static void writeFleet(Path file, int size) throws IOException {
+        Random random = new Random(42);
+        ShipType[] types = ShipType.values();
+        String[] planets = {"Mars", "Jupiter", "Earth", "Neptune", "Mercury", "Saturn", "Venus"};
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("name,planet,shipType,prodDate,isUsed,speed,crewSize\n");
+            for (int i = 0; i < size; i++) {
+                writer.write("Ship " + i + "," + planets[random.nextInt(planets.length)] + ","
+                        + types[random.nextInt(types.length)] + "," + (2800 + random.nextInt(219)) + "-0"
+                        + (1 + random.nextInt(9)) + "-1" + random.nextInt(10) + ","
+                        + random.nextBoolean() + "," + (0.01 + random.nextInt(99) / 100.0) + ","
+                        + (1 + random.nextInt(9999)) + "\n");
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShipImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AggregateShipsTest extends AbstractTest {
+
+    private static final double DELTA = 0.000001;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void aggregateByShipTypeWithFilter() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/aggregate?groupBy=SHIP_TYPE&isUsed=false")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode groups = mapper.readTree(contentAsString);
+        List<ShipInfoTest> unused = testsHelper.getShipInfosByIsUsed(false, testsHelper.getAllShips());
+        assertEquals("Возвращается не правильное количество групп при запросе GET /rest/ships/aggregate.",
+                ShipType.values().length, groups.size());
+
+        for (JsonNode group : groups) {
+            List<ShipInfoTest> ships = testsHelper.getShipInfosByShipType(
+                    ShipType.valueOf(group.get("group").asText()), unused);
+            assertEquals("Не правильное количество кораблей в группе.", (long) ships.size(), group.get("count").asLong());
+
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            double sum = 0;
+            long crewSum = 0;
+            for (ShipInfoTest ship : ships) {
+                min = Math.min(min, ship.speed);
+                max = Math.max(max, ship.speed);
+                sum += ship.speed;
+                crewSum += ship.crewSize;
+            }
+            JsonNode speed = group.get("speed");
+            assertEquals("Не правильная минимальная скорость.", true, Math.abs(min - speed.get("min").asDouble()) < DELTA);
+            assertEquals("Не правильная максимальная скорость.", true, Math.abs(max - speed.get("max").asDouble()) < DELTA);
+            assertEquals("Не правильная сумма скоростей.", true, Math.abs(sum - speed.get("sum").asDouble()) < DELTA);
+            assertEquals("Не правильная средняя скорость.", true,
+                    Math.abs(sum / ships.size() - speed.get("avg").asDouble()) < DELTA);
+            assertEquals("Не правильная сумма экипажа.", (double) crewSum, group.get("crewSize").get("sum").asDouble());
+        }
+    }
+
+    //test2
+    @Test
+    public void aggregateByYear() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/aggregate?groupBy=YEAR")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Map<Integer, Integer> expected = new TreeMap<>();
+        Calendar calendar = Calendar.getInstance();
+        for (ShipInfoTest ship : testsHelper.getAllShips()) {
+            calendar.setTimeInMillis(ship.prodDate);
+            expected.merge(calendar.get(Calendar.YEAR), 1, Integer::sum);
+        }
+
+        JsonNode groups = mapper.readTree(contentAsString);
+        assertEquals("Возвращается не правильное количество групп при запросе GET /rest/ships/aggregate.",
+                expected.size(), groups.size());
+        for (JsonNode group : groups) {
+            assertEquals("Не правильное количество кораблей за год.",
+                    expected.get(group.get("group").asInt()).longValue(), group.get("count").asLong());
+        }
+    }
+
+    //test3
+    @Test
+    public void aggregateWithoutGroupByIsRejected() throws Exception {
+        mockMvc.perform(get("/rest/ships/aggregate"))
+                .andExpect(status().isBadRequest());
+    }
+}
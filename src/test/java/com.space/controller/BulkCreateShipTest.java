@@ -0,0 +1,83 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BulkCreateShipTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void bulkCreateReportsEveryItem() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.EMPTY_NAME_JSON + "," + TestsHelper.IS_USED_TRUE_JSON + "]";
+        String contentAsString = mockMvc.perform(post("/rest/ships/bulk")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode results = mapper.readTree(contentAsString);
+        assertEquals("Возвращается не правильное количество результатов при запросе POST /rest/ships/bulk.", 3, results.size());
+        assertEquals("Не правильный id первого корабля.", 41L, results.get(0).get("id").asLong());
+        assertTrue("Корабль с пустым именем должен быть отклонен.", results.get(1).get("id").isNull());
+        assertFalse("Корабль с пустым именем должен быть отклонен с ошибкой.", results.get(1).get("error").isNull());
+        assertEquals("Не правильный id третьего корабля.", 42L, results.get(2).get("id").asLong());
+    }
+
+    //test2
+    @Test
+    public void bulkCreatedShipsAreRated() throws Exception {
+        mockMvc.perform(post("/rest/ships/bulk")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("[" + TestsHelper.IS_USED_TRUE_JSON + "]"))
+                .andExpect(status().isOk());
+
+        String contentAsString = mockMvc.perform(get("/rest/ships/41")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ShipInfoTest actual = mapper.readValue(contentAsString, ShipInfoTest.class);
+        ShipInfoTest expected = new ShipInfoTest(41L, "123456789", "Earth", ShipType.MILITARY, 32998274577071L, true, 0.8, 14, 6.4);
+
+        assertEquals("Возвращается не правильный результат после создания корабля через POST /rest/ships/bulk.", expected, actual);
+    }
+
+    //test3
+    @Test
+    public void bulkCreatedDateMatchesSingleCreate() throws Exception {
+        long prodDate = new GregorianCalendar(2995, 3, 12, 23, 30).getTimeInMillis();
+        String json = "{\"name\":\"Dawn\",\"planet\":\"Ceres\",\"shipType\":\"MERCHANT\",\"prodDate\":" + prodDate
+                + ",\"isUsed\":false,\"speed\":0.5,\"crewSize\":10}";
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(json))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/ships/bulk")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("[" + json + "]"))
+                .andExpect(status().isOk());
+
+        ShipInfoTest single = mapper.readValue(mockMvc.perform(get("/rest/ships/41"))
+                .andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+        ShipInfoTest bulk = mapper.readValue(mockMvc.perform(get("/rest/ships/42"))
+                .andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+        assertEquals("Дата производства должна сохраняться одинаково через POST /rest/ships/bulk и POST /rest/ships/.",
+                single.prodDate, bulk.prodDate);
+    }
+}
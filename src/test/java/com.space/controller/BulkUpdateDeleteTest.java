@@ -0,0 +1,72 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BulkUpdateDeleteTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void bulkUpdateByPlanetRecomputesRating() throws Exception {
+        String contentAsString = mockMvc.perform(post("/rest/ships/bulk-update?planet=Mars")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"speed\":0.5}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        int expectedCount = testsHelper.getShipInfosByPlanet("Mars", testsHelper.getAllShips()).size();
+        assertEquals("Возвращается не правильное количество при запросе POST /rest/ships/bulk-update.",
+                expectedCount, Integer.parseInt(contentAsString));
+
+        ShipInfoTest ship = mapper.readValue(mockMvc.perform(get("/rest/ships/1"))
+                .andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+        assertEquals("Скорость не обновлена при запросе POST /rest/ships/bulk-update.", 0.5, ship.speed);
+        assertEquals("Рейтинг не пересчитан при запросе POST /rest/ships/bulk-update.", 0.8, ship.rating);
+    }
+
+    //test2
+    @Test
+    public void bulkUpdateWithInvalidValueIsRejected() throws Exception {
+        mockMvc.perform(post("/rest/ships/bulk-update?planet=Mars")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"crewSize\":100000}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test3
+    @Test
+    public void bulkDeleteByShipType() throws Exception {
+        String contentAsString = mockMvc.perform(delete("/rest/ships?shipType=MILITARY&isUsed=true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        int expectedCount = testsHelper.getShipInfosByIsUsed(true,
+                testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips())).size();
+        assertEquals("Возвращается не правильное количество при запросе DELETE /rest/ships.",
+                expectedCount, Integer.parseInt(contentAsString));
+
+        String count = mockMvc.perform(get("/rest/ships/count?shipType=MILITARY&isUsed=true"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Корабли не удалены при запросе DELETE /rest/ships.", 0, Integer.parseInt(count));
+    }
+
+    //test4
+    @Test
+    public void bulkDeleteWithoutFiltersIsRejected() throws Exception {
+        mockMvc.perform(delete("/rest/ships"))
+                .andExpect(status().isBadRequest());
+    }
+}
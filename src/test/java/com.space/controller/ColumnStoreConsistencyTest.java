@@ -0,0 +1,260 @@
+package com.space.controller;
+
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipColumnStore;
+import com.space.service.ShipFilter;
+import com.space.service.ShipService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// H2 compares strings case-sensitively
+@TestPropertySource(properties = {"ship.replica.enabled=true", "ship.replica.ignore-case=false"})
+public class ColumnStoreConsistencyTest extends AbstractTest {
+
+    private static final String[] NAMES = {"Orion", "I", "II", "Da", "er", "a", "1", "Icarus"};
+    private static final String[] PLANETS = {"Mars", "ar", "Earth", "u", "e", "Jupiter", "xyz"};
+
+    @Before
+    public void rebuildColumns() {
+        // @Sql reloads the table behind the application's back
+        context.getBean(ShipColumnStore.class).rebuild();
+    }
+
+    //test1
+    @Test
+    public void randomFiltersMatchDatabase() {
+        assertTrue("Колоночная реплика должна быть построена.", context.getBean(ShipColumnStore.class).isReady());
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            assertSameResults(randomFilter(random), random);
+        }
+    }
+
+    //test2
+    @Test
+    public void replicaFollowsWrites() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/ships/3")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"planet\":\"Neptune\",\"speed\":0.11,\"isUsed\":false}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/ships/7"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/ships/bulk-update?planet=Mars")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"crewSize\":42}"))
+                .andExpect(status().isOk());
+        awaitRebuild();
+
+        Random random = new Random(7);
+        assertSameResults(new ShipFilter(), random);
+        for (int i = 0; i < 100; i++) {
+            assertSameResults(randomFilter(random), random);
+        }
+    }
+
+    //test3
+    @Test
+    public void indexedCountsFollowEdits() throws Exception {
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"shipType\":\"TRANSPORT\",\"prodDate\":" + new GregorianCalendar(2801, 5, 1).getTimeInMillis()
+                        + ",\"isUsed\":false,\"planet\":\"Pluto\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/ships/2"))
+                .andExpect(status().isOk());
+
+        ShipService service = context.getBean(ShipService.class);
+        for (ShipType shipType : ShipType.values()) {
+            for (boolean isUsed : new boolean[]{true, false}) {
+                for (String planet : new String[]{null, "Pluto", "Mars"}) {
+                    ShipFilter filter = new ShipFilter();
+                    filter.setShipType(shipType);
+                    filter.setIsUsed(isUsed);
+                    filter.setPlanet(planet);
+                    assertEquals("Индексы реплики не обновлены после изменения корабля.",
+                            service.countShips(service.filterBy(filter)), service.countShips(filter));
+                }
+            }
+        }
+        ShipFilter filter = new ShipFilter();
+        filter.setBefore(new GregorianCalendar(2802, 0, 1).getTimeInMillis());
+        assertEquals("Индекс годов реплики не обновлен после изменения корабля.", 1L, service.countShips(filter));
+    }
+
+    //test4
+    @Test
+    public void shipWithoutTypeIsKept() {
+        context.getBean(JdbcTemplate.class).update("UPDATE ship SET shipType = NULL WHERE id = 1");
+        context.getBean(ShipColumnStore.class).rebuild();
+
+        ShipService service = context.getBean(ShipService.class);
+        for (ShipType shipType : ShipType.values()) {
+            ShipFilter filter = new ShipFilter();
+            filter.setShipType(shipType);
+            assertEquals("Корабль без типа не должен находиться фильтром по типу.",
+                    service.countShips(service.filterBy(filter)), service.countShips(filter));
+        }
+        assertSameResults(new ShipFilter(), new Random(3));
+    }
+
+    //test5
+    @Test
+    public void writeDuringRebuildIsKept() {
+        ShipRepository repository = context.getBean(ShipRepository.class);
+        ShipColumnStore[] store = new ShipColumnStore[1];
+        ShipRepository loadingRepository = (ShipRepository) Proxy.newProxyInstance(ShipRepository.class.getClassLoader(),
+                new Class<?>[]{ShipRepository.class}, (proxy, method, args) -> {
+                    Object result = method.invoke(repository, args);
+                    if (method.getName().equals("findAll") && args == null) {
+                        // the ship is deleted after the fleet was read but before the columns are swapped in
+                        store[0].shipDeleted(1L);
+                    }
+                    return result;
+                });
+        store[0] = new ShipColumnStore(loadingRepository);
+
+        store[0].rebuild();
+
+        assertEquals("Удаление во время перестроения не должно теряться.", 39L, store[0].count(new ShipFilter()));
+    }
+
+    //test6
+    @Test
+    public void shipOfUnknownUsageMatchesNoUsageFilter() {
+        context.getBean(JdbcTemplate.class).update("UPDATE ship SET isUsed = NULL WHERE id IN (1, 2)");
+        context.getBean(ShipColumnStore.class).rebuild();
+
+        ShipService service = context.getBean(ShipService.class);
+        for (boolean isUsed : new boolean[]{true, false}) {
+            ShipFilter filter = new ShipFilter();
+            filter.setIsUsed(isUsed);
+            assertEquals("Корабль без признака использования не должен находиться фильтром по использованию.",
+                    service.countShips(service.filterBy(filter)), service.countShips(filter));
+        }
+        assertSameResults(new ShipFilter(), new Random(5));
+    }
+
+    //test7
+    @Test
+    public void bulkChangeIsServedByDatabaseUntilReloaded() throws Exception {
+        ShipColumnStore store = context.getBean(ShipColumnStore.class);
+        ShipService service = context.getBean(ShipService.class);
+        ShipFilter filter = new ShipFilter();
+        filter.setMinCrewSize(42);
+        filter.setMaxCrewSize(42);
+
+        mockMvc.perform(post("/rest/ships/bulk-update?planet=Mars")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"crewSize\":42}"))
+                .andExpect(status().isOk());
+
+        assertEquals("Запросы до перестроения реплики должны видеть массовое изменение.",
+                service.countShips(service.filterBy(filter)), service.countShips(filter));
+        awaitRebuild();
+        assertTrue("Реплика должна перестроиться после массового изменения.", store.isReady());
+        assertSameResults(filter, new Random(11));
+    }
+
+    private void awaitRebuild() throws InterruptedException {
+        ShipColumnStore store = context.getBean(ShipColumnStore.class);
+        for (int i = 0; i < 100 && !store.isReady(); i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    private void assertSameResults(ShipFilter filter, Random random) {
+        ShipService service = context.getBean(ShipService.class);
+        ShipOrder order = ShipOrder.values()[random.nextInt(ShipOrder.values().length)];
+        Pageable pageable = PageRequest.of(random.nextInt(4), 1 + random.nextInt(8), order.getSort());
+
+        Page<Ship> expected = service.gelAllShips(service.filterBy(filter), pageable);
+        Page<Ship> actual = service.gelAllShips(filter, pageable);
+
+        assertEquals("Реплика возвращает не правильное количество кораблей.",
+                expected.getTotalElements(), actual.getTotalElements());
+        assertEquals("Реплика возвращает не те корабли.", describe(expected), describe(actual));
+        assertEquals("Реплика считает корабли не правильно.",
+                service.countShips(service.filterBy(filter)), service.countShips(filter));
+    }
+
+    private ShipFilter randomFilter(Random random) {
+        List<Ship> ships = context.getBean(ShipService.class).gelAllShips(null);
+        ShipFilter filter = new ShipFilter();
+        if (random.nextInt(4) == 0)
+            filter.setName(NAMES[random.nextInt(NAMES.length)]);
+        if (random.nextInt(4) == 0)
+            filter.setPlanet(PLANETS[random.nextInt(PLANETS.length)]);
+        if (random.nextInt(4) == 0)
+            filter.setShipType(ShipType.values()[random.nextInt(ShipType.values().length)]);
+        if (random.nextInt(4) == 0)
+            filter.setIsUsed(random.nextBoolean());
+        if (random.nextInt(4) == 0)
+            filter.setAfter(randomDate(random, ships));
+        if (random.nextInt(4) == 0)
+            filter.setBefore(randomDate(random, ships));
+        if (random.nextInt(4) == 0)
+            filter.setMinSpeed(random.nextInt(100) / 100.0);
+        if (random.nextInt(4) == 0)
+            filter.setMaxSpeed(random.nextInt(100) / 100.0);
+        if (random.nextInt(4) == 0)
+            filter.setMinCrewSize(random.nextInt(9999));
+        if (random.nextInt(4) == 0)
+            filter.setMaxCrewSize(random.nextInt(9999));
+        if (random.nextInt(4) == 0)
+            filter.setMinRating(random.nextInt(500) / 100.0);
+        if (random.nextInt(4) == 0)
+            filter.setMaxRating(random.nextInt(500) / 100.0);
+        return filter;
+    }
+
+    /**
+     * Mostly the production day of some ship, either its midnight or some time of that day, so
+     * that both ends of the date filters are hit.
+     */
+    private static long randomDate(Random random, List<Ship> ships) {
+        Calendar calendar = new GregorianCalendar(2800 + random.nextInt(220), random.nextInt(12), 1 + random.nextInt(28));
+        if (random.nextInt(4) != 0) {
+            calendar.setTime(ships.get(random.nextInt(ships.size())).getProdDate());
+        }
+        if (random.nextBoolean()) {
+            calendar.add(Calendar.MINUTE, random.nextInt(24 * 60));
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    private static List<String> describe(Page<Ship> page) {
+        List<String> ships = new ArrayList<>();
+        for (Ship ship : page.getContent()) {
+            ships.add(ship.getId() + " " + ship.getName() + " " + ship.getPlanet() + " " + ship.getShipType()
+                    + " " + ship.getProdDate().getTime() + " " + ship.getUsed() + " " + ship.getSpeed()
+                    + " " + ship.getCrewSize() + " " + ship.getRating());
+        }
+        return ships;
+    }
+}
@@ -0,0 +1,123 @@
+package com.space.controller;
+
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ConditionalRequestTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void getShipWithMatchingETagIsNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull("GET /rest/ships/{id} должен возвращать ETag.", eTag);
+
+        mockMvc.perform(get("/rest/ships/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    //test2
+    @Test
+    public void getShipAfterEditIsModified() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String newETag = mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .content("{\"name\":\"Orion IV\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals("После редактирования ETag должен измениться.", eTag, newETag);
+
+        mockMvc.perform(get("/rest/ships/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    //test3
+    @Test
+    public void editWithStaleETagFails() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships/2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/rest/ships/2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Daedalus II\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/rest/ships/2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .content("{\"name\":\"Daedalus III\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    //test4
+    @Test
+    public void listIsNotModifiedUntilFleetChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships?shipType=MILITARY"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull("GET /rest/ships должен возвращать ETag.", eTag);
+
+        mockMvc.perform(get("/rest/ships?shipType=MILITARY").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/rest/ships/count?shipType=MILITARY").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/ships?shipType=MILITARY").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    //test5
+    @Test
+    public void editWithAnyETagSucceeds() throws Exception {
+        mockMvc.perform(post("/rest/ships/3")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(HttpHeaders.IF_MATCH, "*")
+                .content("{\"name\":\"Hermes II\"}"))
+                .andExpect(status().isOk());
+    }
+
+    //test6
+    @Test
+    public void editWithETagListSucceedsWhenAnyMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships/4"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/rest/ships/4")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(HttpHeaders.IF_MATCH, "\"999\", " + eTag + ",\"1000\"")
+                .content("{\"name\":\"Vega II\"}"))
+                .andExpect(status().isOk());
+    }
+
+    //test7
+    @Test
+    public void editWithWeakOrForeignETagsFails() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/ships/5"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/rest/ships/5")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(HttpHeaders.IF_MATCH, "W/" + eTag + ", \"abc\"")
+                .content("{\"name\":\"Vega III\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
@@ -0,0 +1,43 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ConnectionPoolTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void requestsBorrowConnectionsFromPool() throws Exception {
+        long before = pool().get("acquired").asLong();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/rest/ships/count")).andExpect(status().isOk());
+        }
+        JsonNode pool = pool();
+
+        assertTrue("Каждый запрос должен брать соединение из пула.", pool.get("acquired").asLong() >= before + 5);
+        assertEquals("Все соединения должны возвращаться в пул.", 0, pool.get("active").asInt());
+        assertEquals("Размер пула должен браться из datasource.properties.", 10, pool.get("maxSize").asInt());
+        double maxWait = pool.get("maxWaitMillis").asDouble();
+        assertTrue("Время ожидания соединения должно учитываться.", maxWait > 0);
+        assertTrue("p99 ожидания не может превышать максимум.", pool.get("p99WaitMillis").asDouble() <= maxWait);
+        assertTrue("Среднее ожидание не может превышать максимум.", pool.get("averageWaitMillis").asDouble() <= maxWait);
+    }
+
+    private JsonNode pool() throws Exception {
+        JsonNode pools = mapper.readTree(mockMvc.perform(get("/rest/stats/pool"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode pool = pools.get("cosmoport-dev");
+        assertNotNull("GET /rest/stats/pool должен возвращать метрики пула.", pool);
+        return pool;
+    }
+}
@@ -0,0 +1,56 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportShipsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void exportWithoutFiltersReturnsWholeFleet() throws Exception {
+        List<ShipInfoTest> actual = export("/rest/ships/export");
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/ships/export.",
+                testsHelper.getAllShips(), actual);
+    }
+
+    //test2
+    @Test
+    public void exportWithFiltersShipTypeMinSpeed() throws Exception {
+        List<ShipInfoTest> actual = export("/rest/ships/export?shipType=TRANSPORT&minSpeed=0.5");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByShipType(ShipType.TRANSPORT,
+                testsHelper.getShipInfosByMinSpeed(0.5, testsHelper.getAllShips()));
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/ships/export с параметрами shipType и minSpeed.",
+                expected, actual);
+    }
+
+    private List<ShipInfoTest> export(String url) throws Exception {
+        String contentAsString = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MainController.NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<ShipInfoTest> ships = new ArrayList<>();
+        for (String line : contentAsString.split("\n")) {
+            if (!line.isEmpty()) {
+                ships.add(mapper.readValue(line, ShipInfoTest.class));
+            }
+        }
+        return ships;
+    }
+}
@@ -0,0 +1,91 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetAllByCursorTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void walkAllPagesByEveryOrder() throws Exception {
+        for (ShipOrder order : ShipOrder.values()) {
+            List<ShipInfoTest> actual = new ArrayList<>();
+            String cursor = "";
+            while (cursor != null) {
+                MockHttpServletResponse response = mockMvc.perform(get("/rest/ships")
+                        .param("order", order.name())
+                        .param("pageSize", "7")
+                        .param("cursor", cursor)
+                        .accept(MediaType.APPLICATION_JSON_UTF8))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse();
+                actual.addAll(mapper.readValue(response.getContentAsString(), typeReference));
+                cursor = response.getHeader(MainController.NEXT_CURSOR_HEADER);
+            }
+            List<ShipInfoTest> expected = new ArrayList<>(testsHelper.getAllShips());
+            expected.sort(comparatorOf(order).thenComparing(ship -> ship.id));
+
+            assertEquals("Возвращается не правильный результат при постраничном обходе GET /rest/ships с параметром cursor и order=" + order + ".", expected, actual);
+        }
+    }
+
+    private Comparator<ShipInfoTest> comparatorOf(ShipOrder order) {
+        switch (order) {
+            case SPEED:
+                return Comparator.comparing(ship -> ship.speed);
+            case DATE:
+                return Comparator.comparing(ship -> ship.prodDate);
+            case RATING:
+                return Comparator.comparing(ship -> ship.rating);
+            default:
+                return Comparator.comparing(ship -> ship.id);
+        }
+    }
+
+    //test2
+    @Test
+    public void cursorFromAnotherOrderIsRejected() throws Exception {
+        String cursor = mockMvc.perform(get("/rest/ships?order=SPEED&cursor=")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(MainController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/rest/ships?order=RATING&cursor=" + cursor)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test3
+    @Test
+    public void brokenCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/rest/ships?cursor=@@@")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test4
+    @Test
+    public void emptyPageSizeIsRejected() throws Exception {
+        mockMvc.perform(get("/rest/ships?pageSize=0&cursor=")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,107 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetFacetsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void facetsExcludeTheirOwnFilter() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/facets?shipType=MILITARY&isUsed=false&planet=a&maxCrewSize=2000")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode facets = mapper.readTree(contentAsString);
+
+        List<ShipInfoTest> base = testsHelper.getShipInfosByMaxCrewSize(2000, testsHelper.getAllShips());
+        List<ShipInfoTest> byPlanet = testsHelper.getShipInfosByPlanet("a", base);
+
+        List<ShipInfoTest> all = testsHelper.getShipInfosByShipType(ShipType.MILITARY,
+                testsHelper.getShipInfosByIsUsed(false, byPlanet));
+        assertEquals("Не правильное общее количество при запросе GET /rest/ships/facets.",
+                (long) all.size(), facets.get("count").asLong());
+
+        for (ShipType shipType : ShipType.values()) {
+            int expected = testsHelper.getShipInfosByShipType(shipType,
+                    testsHelper.getShipInfosByIsUsed(false, byPlanet)).size();
+            assertEquals("Не правильное количество для типа " + shipType + ".",
+                    (long) expected, facets.get("shipType").get(shipType.name()).asLong());
+        }
+
+        for (Boolean isUsed : new Boolean[]{true, false}) {
+            int expected = testsHelper.getShipInfosByIsUsed(isUsed,
+                    testsHelper.getShipInfosByShipType(ShipType.MILITARY, byPlanet)).size();
+            assertEquals("Не правильное количество для isUsed=" + isUsed + ".",
+                    (long) expected, facets.get("isUsed").get(isUsed.toString()).asLong());
+        }
+
+        List<ShipInfoTest> planetBase = testsHelper.getShipInfosByShipType(ShipType.MILITARY,
+                testsHelper.getShipInfosByIsUsed(false, base));
+        JsonNode planets = facets.get("planet");
+        planets.fieldNames().forEachRemaining(planet -> assertEquals("Не правильное количество для планеты " + planet + ".",
+                planetBase.stream().filter(ship -> ship.planet.equals(planet)).count(),
+                planets.get(planet).asLong()));
+    }
+
+    //test2
+    @Test
+    public void facetsReturnTopPlanets() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/facets?topPlanets=3")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode planets = mapper.readTree(contentAsString).get("planet");
+
+        assertEquals("Возвращается не правильное количество планет.", 3, planets.size());
+        long previous = Long.MAX_VALUE;
+        for (JsonNode count : planets) {
+            assertEquals("Планеты должны быть упорядочены по убыванию количества.", true, count.asLong() <= previous);
+            previous = count.asLong();
+        }
+    }
+
+    //test3
+    @Test
+    public void facetsWithInvalidTopPlanetsAreRejected() throws Exception {
+        mockMvc.perform(get("/rest/ships/facets?topPlanets=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test4
+    @Test
+    public void shipWithoutUsageIsInNoUsageBucket() throws Exception {
+        context.getBean(JdbcTemplate.class).update("UPDATE ship SET isUsed = NULL WHERE id = 1");
+
+        String contentAsString = mockMvc.perform(get("/rest/ships/facets")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode usage = mapper.readTree(contentAsString).get("isUsed");
+
+        for (Boolean isUsed : new Boolean[]{true, false}) {
+            String count = mockMvc.perform(get("/rest/ships/count?isUsed=" + isUsed))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals("Количество для isUsed=" + isUsed + " должно совпадать с фильтром.",
+                    Long.parseLong(count), usage.get(isUsed.toString()).asLong());
+        }
+        assertEquals("Корабль без isUsed не должен попадать ни в одну группу.", 39L,
+                usage.get("true").asLong() + usage.get("false").asLong());
+    }
+}
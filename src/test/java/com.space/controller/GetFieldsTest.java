@@ -0,0 +1,72 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetFieldsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void getAllWithFieldsReturnsOnlyRequestedFields() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships?fields=id,name,planet,rating&planet=ur&pageSize=5")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode ships = mapper.readTree(contentAsString);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 5,
+                testsHelper.getShipInfosByPlanet("ur", testsHelper.getAllShips()));
+
+        assertEquals("Возвращается не правильное количество кораблей при запросе GET /rest/ships с параметром fields.",
+                expected.size(), ships.size());
+        for (int i = 0; i < expected.size(); i++) {
+            JsonNode ship = ships.get(i);
+            List<String> names = new ArrayList<>();
+            for (Iterator<String> it = ship.fieldNames(); it.hasNext(); ) {
+                names.add(it.next());
+            }
+            assertEquals("Возвращаются лишние поля при запросе GET /rest/ships с параметром fields.",
+                    4, names.size());
+            assertEquals("Не правильный id.", expected.get(i).id.longValue(), ship.get("id").asLong());
+            assertEquals("Не правильное имя.", expected.get(i).name, ship.get("name").asText());
+            assertEquals("Не правильная планета.", expected.get(i).planet, ship.get("planet").asText());
+            assertEquals("Не правильный рейтинг.", expected.get(i).rating, ship.get("rating").asDouble());
+        }
+    }
+
+    //test2
+    @Test
+    public void getAllWithUnknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/rest/ships?fields=id,password")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test3
+    @Test
+    public void getAllWithRepeatedFieldReturnsItOnce() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships?fields=id,id,name&pageSize=1")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode ship = mapper.readTree(contentAsString).get(0);
+        assertEquals("Повторное поле должно возвращаться один раз.", 2, ship.size());
+        assertEquals("Не правильный id.", 1L, ship.get("id").asLong());
+    }
+}
@@ -0,0 +1,94 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetHistogramTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void crewSizeHistogramByBucketWidth() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/histogram?field=CREW_SIZE&bucketWidth=1000&isUsed=true")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode buckets = mapper.readTree(contentAsString).get("buckets");
+
+        List<ShipInfoTest> ships = testsHelper.getShipInfosByIsUsed(true, testsHelper.getAllShips());
+        long total = 0;
+        for (JsonNode bucket : buckets) {
+            double from = bucket.get("from").asDouble();
+            double to = bucket.get("to").asDouble();
+            assertEquals("Не правильная ширина корзины.", 1000.0, to - from);
+            long expected = ships.stream().filter(ship -> ship.crewSize >= from && ship.crewSize < to).count();
+            assertEquals("Не правильное количество кораблей в корзине [" + from + ", " + to + ").",
+                    expected, bucket.get("count").asLong());
+            total += bucket.get("count").asLong();
+        }
+        assertEquals("Сумма по корзинам должна совпадать с количеством кораблей.", (long) ships.size(), total);
+    }
+
+    //test2
+    @Test
+    public void yearHistogramByBucketCount() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/histogram?field=PROD_YEAR&buckets=5")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode buckets = mapper.readTree(contentAsString).get("buckets");
+
+        Calendar calendar = Calendar.getInstance();
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+        assertEquals("Не правильное количество корзин.", true, buckets.size() <= 5);
+        for (JsonNode bucket : buckets) {
+            double from = bucket.get("from").asDouble();
+            double to = bucket.get("to").asDouble();
+            long expected = ships.stream().filter(ship -> {
+                calendar.setTimeInMillis(ship.prodDate);
+                int year = calendar.get(Calendar.YEAR);
+                return year >= from && year < to;
+            }).count();
+            assertEquals("Не правильное количество кораблей в корзине [" + from + ", " + to + ").",
+                    expected, bucket.get("count").asLong());
+        }
+    }
+
+    //test3
+    @Test
+    public void speedHistogramCoversAllShips() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/histogram?field=SPEED&buckets=4")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode buckets = mapper.readTree(contentAsString).get("buckets");
+
+        assertEquals("Не правильное количество корзин.", 4, buckets.size());
+        long total = 0;
+        for (JsonNode bucket : buckets) {
+            total += bucket.get("count").asLong();
+        }
+        assertEquals("Сумма по корзинам должна совпадать с количеством кораблей.",
+                (long) testsHelper.getAllShips().size(), total);
+    }
+
+    //test4
+    @Test
+    public void histogramWithBothWidthAndCountIsRejected() throws Exception {
+        mockMvc.perform(get("/rest/ships/histogram?field=SPEED&buckets=4&bucketWidth=0.1"))
+                .andExpect(status().isBadRequest());
+    }
+}
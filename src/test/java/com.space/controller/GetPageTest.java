@@ -0,0 +1,58 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetPageTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void getPageWithoutFiltersReturnsFirstPageAndTotal() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/page")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode page = mapper.readTree(contentAsString);
+        List<ShipInfoTest> actual = Arrays.asList(mapper.treeToValue(page.get("ships"), ShipInfoTest[].class));
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/ships/page.", expected, actual);
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/ships/page.",
+                (long) testsHelper.getAllShips().size(), page.get("count").asLong());
+    }
+
+    //test2
+    @Test
+    public void getPageWithFiltersShipTypeIsUsedPageNumber() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/page?shipType=MILITARY&isUsed=false&pageNumber=1&pageSize=2")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode page = mapper.readTree(contentAsString);
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByIsUsed(false,
+                testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips()));
+        List<ShipInfoTest> actual = Arrays.asList(mapper.treeToValue(page.get("ships"), ShipInfoTest[].class));
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/ships/page с параметрами shipType, isUsed и pageNumber.",
+                testsHelper.getShipInfosByPage(1, 2, filtered), actual);
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/ships/page с параметрами shipType, isUsed и pageNumber.",
+                (long) filtered.size(), page.get("count").asLong());
+    }
+}
@@ -0,0 +1,131 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.cli.ImportShips;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipImportFormat;
+import com.space.model.ShipImportReport;
+import com.space.service.ShipImporter;
+import com.space.service.ShipTrigramIndex;
+import com.space.service.ShipValidator;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertFalse;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"ship.import.chunk-size=2", "ship.import.threads=2", "ship.import.queue-capacity=1"})
+public class ImportShipsTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void csvImportReportsRejectedLines() throws Exception {
+        String csv = "name,planet,shipType,prodDate,isUsed,speed,crewSize\n" +
+                "Alpha,Earth,MILITARY,3015-06-01,false,0.8,14\n" +
+                "\"Beta, the second\",Mars,TRANSPORT,32998274577071,,0.5,100\n" +
+                "Gamma,Earth,MILITARY,3015-06-01,false,1.5,14\n" +
+                "\n" +
+                "Delta,Earth,CARGO,3015-06-01,false,0.5,14\n" +
+                "Epsilon,Venus,MERCHANT,3010-01-01,true,0.3,many\n";
+
+        JsonNode report = importShips(csv, MainController.CSV);
+        assertEquals("Не правильное количество строк в отчете импорта.", 5, report.get("rows").asInt());
+        assertEquals("Не правильное количество импортированных кораблей.", 2, report.get("imported").asInt());
+        assertEquals("Не правильное количество отклоненных строк.", 3, report.get("rejected").asInt());
+        JsonNode rejections = report.get("rejections");
+        assertEquals("Отклоненная строка должна иметь номер строки файла.", 4, rejections.get(0).get("line").asInt());
+        assertEquals("Отклоненная строка должна иметь номер строки файла.", 6, rejections.get(1).get("line").asInt());
+        assertEquals("Отклоненная строка должна иметь номер строки файла.", 7, rejections.get(2).get("line").asInt());
+        assertEquals("Скорость должна проверяться как при создании корабля.", "Speed is invalid",
+                rejections.get(0).get("error").asText());
+
+        assertEquals("Импортированные корабли должны учитываться в количестве.", "42",
+                mockMvc.perform(get("/rest/ships/count"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+        JsonNode ships = mapper.readTree(mockMvc.perform(get("/rest/ships?name=Beta"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Поле в кавычках должно читаться целиком.", "Beta, the second", ships.get(0).get("name").asText());
+        assertFalse("Импортированный корабль должен получить рейтинг.", ships.get(0).get("rating").isNull());
+    }
+
+    //test2
+    @Test
+    public void ndjsonImportReadsShipsLikeTheRestApi() throws Exception {
+        String ndjson = TestsHelper.NORMAL_JSON + "\n" +
+                "{\"name\": \n" +
+                TestsHelper.EMPTY_NAME_JSON + "\n" +
+                TestsHelper.IS_USED_TRUE_JSON + "\n";
+
+        JsonNode report = importShips(ndjson, MainController.NDJSON);
+        assertEquals("Не правильное количество импортированных кораблей.", 2, report.get("imported").asInt());
+        assertEquals("Не правильное количество отклоненных строк.", 2, report.get("rejected").asInt());
+        assertEquals("Не правильная ошибка для неразборчивой строки.", "Malformed JSON",
+                report.get("rejections").get(0).get("error").asText());
+        assertEquals("Не правильный номер строки корабля без имени.", 3,
+                report.get("rejections").get(1).get("line").asInt());
+
+        JsonNode ship = mapper.readTree(mockMvc.perform(get("/rest/ships?name=123456789&isUsed=true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get(0);
+        assertEquals("Импортированный корабль должен быть рассчитан как при создании.", 6.4, ship.get("rating").asDouble());
+    }
+
+    //test3
+    @Test
+    public void csvWithoutRequiredColumnIsRejected() throws Exception {
+        mockMvc.perform(post("/rest/ships/import")
+                .contentType(MainController.CSV)
+                .content("name,planet,shipType,prodDate,speed\nAlpha,Earth,MILITARY,3015-06-01,0.8\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test4
+    @Test
+    public void shipWithoutTypeIsRejected() throws Exception {
+        String csv = "name,planet,shipType,prodDate,isUsed,speed,crewSize\n" +
+                "Alpha,Earth,,3015-06-01,false,0.8,14\n" +
+                "Beta,Earth,MILITARY,3015-06-01,false,0.8,14\n";
+
+        JsonNode report = importShips(csv, MainController.CSV);
+        assertEquals("Не правильное количество импортированных кораблей.", 1, report.get("imported").asInt());
+        assertEquals("Корабль без типа должен отклоняться.", "Ship type is incorrect",
+                report.get("rejections").get(0).get("error").asText());
+    }
+
+    //test5
+    @Test
+    public void commandLineStartsOnlyWhatTheImportNeeds() throws Exception {
+        try (AnnotationConfigApplicationContext cli = new AnnotationConfigApplicationContext()) {
+            cli.getEnvironment().setActiveProfiles("dev");
+            cli.register(ImportShips.ImportConfig.class);
+            cli.refresh();
+
+            assertEquals("Команде импорта не нужны индексы в памяти.", 0,
+                    cli.getBeanNamesForType(ShipTrigramIndex.class).length);
+            ShipImportReport report = cli.getBean(ShipImporter.class).importShips(new BufferedReader(new StringReader(
+                    "name,planet,shipType,prodDate,isUsed,speed,crewSize\nAlpha,Earth,MILITARY,3015-06-01,false,0.8,14\n")),
+                    ShipImportFormat.CSV, cli.getBean(ShipValidator.class)::prepareImported);
+            assertEquals("Команда импорта должна импортировать корабли.", 1L, report.getImported());
+        }
+    }
+
+    private JsonNode importShips(String body, String contentType) throws Exception {
+        return mapper.readTree(mockMvc.perform(post("/rest/ships/import")
+                .contentType(contentType)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
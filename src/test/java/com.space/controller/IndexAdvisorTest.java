@@ -0,0 +1,87 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"ship.index-advisor.min-calls=2", "ship.index-advisor.slow-millis=0",
+        "ship.index-advisor.create-enabled=true"})
+public class IndexAdvisorTest extends AbstractTest {
+
+    private static final String USAGE_SPEED_INDEX = "idx_ship_isused_speed";
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void migrationsAreApplied() {
+        assertEquals("Миграции схемы должны быть применены.", 0,
+                context.getBean(Flyway.class).info().pending().length);
+    }
+
+    //test2
+    @Test
+    public void databaseFromOriginalSchemaIsMigrated() {
+        DriverManagerDataSource database = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        try {
+            // the ship table of the original init.sql, without its MySQL table options
+            jdbcTemplate.execute("CREATE TABLE ship (id BIGINT(20) NOT NULL AUTO_INCREMENT, name VARCHAR(50) NULL, " +
+                    "planet VARCHAR(50) NULL, shipType VARCHAR(9) NULL, prodDate date NULL, isUsed BIT(1) NULL, " +
+                    "speed DOUBLE NULL, crewSize INT(4) NULL, rating DOUBLE NULL, PRIMARY KEY (id))");
+            jdbcTemplate.update("INSERT INTO ship (name) VALUES ('Orion III')");
+            Flyway.configure().dataSource(database).baselineOnMigrate(true).load().migrate();
+            assertEquals("Базе до миграций должны быть добавлены столбцы версии.", 1L,
+                    jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM ship WHERE version = 0 AND lastModified IS NULL", Long.class));
+        } finally {
+            jdbcTemplate.execute("SHUTDOWN");
+        }
+    }
+
+    //test3
+    @Test
+    public void frequentFilterGetsIndexSuggestionUntilCreated() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/rest/ships?isUsed=false&order=SPEED"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/rest/ships/count?minCrewSize=100&isUsed=true"))
+                .andExpect(status().isOk());
+
+        assertTrue("Должен быть предложен индекс для частого фильтра.", suggested(USAGE_SPEED_INDEX));
+        assertFalse("Редкий фильтр не должен получать индекс.", suggested("idx_ship_isused_crewsize"));
+
+        String created = mockMvc.perform(post("/rest/stats/indexes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Предложенный индекс должен быть создан.", created.contains(USAGE_SPEED_INDEX));
+        assertFalse("Созданный индекс больше не должен предлагаться.", suggested(USAGE_SPEED_INDEX));
+    }
+
+    private boolean suggested(String name) throws Exception {
+        JsonNode advice = mapper.readTree(mockMvc.perform(get("/rest/stats/indexes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        for (JsonNode suggestion : advice.get("suggestions")) {
+            if (suggestion.get("name").asText().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,199 @@
+package com.space.controller;
+
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.model.ShipChangeEvent;
+import com.space.model.ShipChangeType;
+import com.space.model.ShipType;
+import com.space.service.ShipEventSubscriber;
+import com.space.service.ShipOutboxDispatcher;
+import com.space.service.ShipService;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"ship.outbox.enabled=true", "ship.outbox.batch-size=2",
+        "ship.outbox.dispatch-interval-millis=3600000"})
+public class OutboxTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void changesAreDeliveredInOrder() throws Exception {
+        createEditDelete();
+        RecordingSubscriber subscriber = new RecordingSubscriber("recorder", 0);
+
+        dispatch(subscriber);
+
+        assertEquals("События должны приходить в порядке изменений.",
+                "[CREATED, UPDATED, DELETED]", types(subscriber.events).toString());
+        assertEquals("Событие должно содержать измененный корабль.", "Renamed",
+                subscriber.events.get(1).getShip().getName());
+        assertEquals("События должны приходить пачками.", 2, subscriber.batches);
+        assertEquals("Доставленные события должны удаляться.", 0L,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship_outbox", Long.class));
+    }
+
+    //test2
+    @Test
+    public void failedBatchIsDeliveredAgain() throws Exception {
+        createEditDelete();
+        RecordingSubscriber subscriber = new RecordingSubscriber("flaky", 1);
+
+        dispatch(subscriber);
+        assertEquals("После ошибки события не должны подтверждаться.", 0, subscriber.events.size());
+        assertEquals("Неподтвержденные события должны остаться.", 3L,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship_outbox", Long.class));
+
+        dispatch(subscriber);
+        dispatch(subscriber);
+        assertEquals("События должны быть доставлены повторно ровно один раз.",
+                "[CREATED, UPDATED, DELETED]", types(subscriber.events).toString());
+    }
+
+    //test3
+    @Test
+    public void rolledBackChangeWritesNoEvent() {
+        Ship ship = new Ship();
+        ship.setName("Rocinante");
+        ship.setPlanet("Mars");
+        ship.setShipType(ShipType.MILITARY);
+        ship.setProdDate(new GregorianCalendar(3000, 0, 1).getTime());
+        ship.setUsed(false);
+        ship.setSpeed(0.5);
+        ship.setCrewSize(10);
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            context.getBean(ShipService.class).createShip(ship);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertEquals("Откаченный корабль не должен сохраняться.", 40L,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship", Long.class));
+        assertEquals("Откаченные изменения не должны попадать в outbox.", 0L,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship_outbox", Long.class));
+    }
+
+    //test4
+    @Test
+    public void unsubscribedSubscriberKeepsItsEvents() throws Exception {
+        createEditDelete();
+        RecordingSubscriber recorder = new RecordingSubscriber("recorder", 0);
+        RecordingSubscriber flaky = new RecordingSubscriber("flaky", 1);
+
+        dispatch(recorder, flaky);
+        dispatch(recorder);
+        assertEquals("События отключенного подписчика должны остаться.", 3L,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship_outbox", Long.class));
+
+        dispatch(flaky);
+        assertEquals("Вернувшийся подписчик должен получить пропущенные события.",
+                "[CREATED, UPDATED, DELETED]", types(flaky.events).toString());
+        assertEquals("События, обработанные всеми подписчиками, должны удаляться.", 0L,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship_outbox", Long.class));
+    }
+
+    //test5
+    @Test
+    public void bulkCreateWritesEventPerShip() throws Exception {
+        mockMvc.perform(post("/rest/ships/bulk")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.NORMAL_JSON + "]"))
+                .andExpect(status().isOk());
+        RecordingSubscriber subscriber = new RecordingSubscriber("recorder", 0);
+
+        dispatch(subscriber);
+
+        assertEquals("Каждый созданный корабль должен попасть в outbox.",
+                "[CREATED, CREATED]", types(subscriber.events).toString());
+    }
+
+    //test6
+    @Test
+    public void changesOfOtherProcessesReachTheIndexes() throws Exception {
+        jdbcTemplate().update("UPDATE ship SET name = 'Rocinante' WHERE id = 1");
+        jdbcTemplate().update("INSERT INTO ship_outbox (eventType, origin, createdAt) VALUES ('FLEET_CHANGED', 'import', ?)",
+                new Timestamp(System.currentTimeMillis()));
+
+        context.getBean(ShipOutboxDispatcher.class).dispatch();
+
+        assertEquals("Изменение другого процесса должно попасть в подсказки.", true,
+                mockMvc.perform(get("/rest/ships/suggest?prefix=Roci"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString().contains("Rocinante"));
+    }
+
+    private void createEditDelete() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/ships/41")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/ships/41"))
+                .andExpect(status().isOk());
+    }
+
+    private void dispatch(ShipEventSubscriber... subscribers) {
+        ShipOutboxDispatcher dispatcher = context.getBean(ShipOutboxDispatcher.class);
+        Arrays.stream(subscribers).forEach(dispatcher::subscribe);
+        try {
+            dispatcher.dispatch();
+        } finally {
+            Arrays.stream(subscribers).forEach(dispatcher::unsubscribe);
+        }
+    }
+
+    private static List<ShipChangeType> types(List<ShipChangeEvent> events) {
+        return events.stream().map(ShipChangeEvent::getType).collect(Collectors.toList());
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        return context.getBean(JdbcTemplate.class);
+    }
+
+    private static class RecordingSubscriber implements ShipEventSubscriber {
+        private final String name;
+        private final List<ShipChangeEvent> events = new ArrayList<>();
+        private int failures;
+        private int batches;
+
+        RecordingSubscriber(String name, int failures) {
+            this.name = name;
+            this.failures = failures;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void onEvents(List<ShipChangeEvent> batch) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("Subscriber is down");
+            }
+            events.addAll(batch);
+            batches++;
+        }
+    }
+}
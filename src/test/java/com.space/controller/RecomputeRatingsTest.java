@@ -0,0 +1,55 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.BigDecimalRatingCalculator;
+import com.space.service.RatingCalculator;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RecomputeRatingsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private RatingCalculator calculator = new BigDecimalRatingCalculator(3019);
+
+    //test1
+    @Test
+    public void recomputeRestoresEveryRating() throws Exception {
+        int broken = context.getBean(JdbcTemplate.class).update("UPDATE ship SET rating = 0 WHERE MOD(id, 3) = 0");
+
+        String contentAsString = mockMvc.perform(post("/rest/ships/ratings/recompute"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Должны быть пересчитаны все испорченные рейтинги.", Integer.parseInt(contentAsString) >= broken);
+
+        for (ShipInfoTest ship : testsHelper.getAllShips()) {
+            ShipInfoTest actual = mapper.readValue(mockMvc.perform(get("/rest/ships/" + ship.id))
+                    .andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+            double expected = calculator.rate(actual.speed, actual.isUsed,
+                    calculator.productionYear(new Date(actual.prodDate)));
+            assertEquals("Не правильный рейтинг после пересчета у корабля " + ship.id + ".", expected, actual.rating);
+        }
+    }
+
+    //test2
+    @Test
+    public void recomputeOfRatedFleetChangesNothing() throws Exception {
+        mockMvc.perform(post("/rest/ships/ratings/recompute"))
+                .andExpect(status().isOk());
+
+        String contentAsString = mockMvc.perform(post("/rest/ships/ratings/recompute"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Повторный пересчет не должен менять рейтинги.", 0, Integer.parseInt(contentAsString));
+    }
+}
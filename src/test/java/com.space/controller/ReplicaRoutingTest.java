@@ -0,0 +1,104 @@
+package com.space.controller;
+
+import com.space.config.ReplicaRoutingDataSource;
+import com.space.controller.utils.TestsHelper;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The dev replica is a second H2 database loaded with the same script and never replicated to,
+ * so a read that returns the seed data after a write must have been served by the replica.
+ */
+@TestPropertySource(properties = {"db.dev.replicas=1", "db.replica.read-your-writes-window=500",
+        "ship.result-cache.enabled=true"})
+public class ReplicaRoutingTest extends AbstractTest {
+
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    private TestsHelper testsHelper = new TestsHelper();
+
+    @After
+    public void resetClock() {
+        routing().setClock(Clock.systemUTC());
+    }
+
+    //test1
+    @Test
+    public void writerReadsOwnWritesUntilWindowCloses() throws Exception {
+        int seeded = testsHelper.getAllShips().size();
+        mockMvc.perform(post("/rest/ships/")
+                .header(CLIENT_HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        assertEquals("Клиент должен видеть свою запись сразу после нее.", seeded + 1, count("writer"));
+        assertEquals("Чтения других клиентов должны идти на реплику.", seeded, count("reader"));
+
+        routing().setClock(Clock.offset(Clock.systemUTC(), Duration.ofMillis(600)));
+        assertEquals("После окна read-your-writes чтения должны идти на реплику.", seeded, count("writer"));
+    }
+
+    //test2
+    @Test
+    public void getShipIsReadFromReplica() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .header(CLIENT_HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/ships/41").header(CLIENT_HEADER, "writer"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/41").header(CLIENT_HEADER, "reader"))
+                .andExpect(status().isNotFound());
+    }
+
+    //test3
+    @Test
+    public void replicaReadsAreNeitherCachedNorTagged() throws Exception {
+        int seeded = testsHelper.getAllShips().size();
+        mockMvc.perform(post("/rest/ships/")
+                .header(CLIENT_HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        MockHttpServletResponse replicaRead = countResponse("reader");
+        assertEquals("Чтение с реплики возвращает ее данные.", String.valueOf(seeded), replicaRead.getContentAsString());
+        assertNull("Чтение с реплики не должно помечаться версией флота.", replicaRead.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletResponse primaryRead = countResponse("writer");
+        assertEquals("Клиент не должен получать из кэша данные реплики.", String.valueOf(seeded + 1),
+                primaryRead.getContentAsString());
+        assertNotNull("Чтение с основной базы должно помечаться версией флота.", primaryRead.getHeader(HttpHeaders.ETAG));
+    }
+
+    private int count(String client) throws Exception {
+        return Integer.parseInt(countResponse(client).getContentAsString());
+    }
+
+    private MockHttpServletResponse countResponse(String client) throws Exception {
+        return mockMvc.perform(get("/rest/ships/count").header(CLIENT_HEADER, client))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private ReplicaRoutingDataSource routing() {
+        return context.getBean(ReplicaRoutingDataSource.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "ship.result-cache.enabled=true")
+public class ResultCacheTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void equivalentRequestsShareCachedResult() throws Exception {
+        JsonNode before = stats();
+        String first = mockMvc.perform(get("/rest/ships?shipType=MILITARY&isUsed=false&order=RATING"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/rest/ships?order=RATING&isUsed=false&shipType=MILITARY"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode after = stats();
+
+        assertEquals("Кэшированный ответ отличается от исходного.", first, second);
+        assertTrue("Кэш результатов должен быть включен.", after.get("enabled").asBoolean());
+        assertEquals("Повторный запрос должен попадать в кэш результатов.",
+                before.get("hits").asLong() + 1, after.get("hits").asLong());
+        assertTrue("Кэш результатов должен оценивать занятую память.", after.get("estimatedBytes").asLong() > 0);
+    }
+
+    //test2
+    @Test
+    public void countIsNotStaleAfterCreateAndDelete() throws Exception {
+        int expected = testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips()).size();
+        assertEquals("Не правильное количество кораблей.", expected, count());
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        assertEquals("Кэш результатов не сброшен после создания корабля.", expected + 1, count());
+
+        mockMvc.perform(delete("/rest/ships/41"))
+                .andExpect(status().isOk());
+        assertEquals("Кэш результатов не сброшен после удаления корабля.", expected, count());
+    }
+
+    private int count() throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/ships/count?shipType=MILITARY"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode stats() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/stats/result-cache"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,75 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "ship.cache.enabled=true")
+public class SecondLevelCacheTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void repeatedGetShipIsServedFromCache() throws Exception {
+        JsonNode before = cacheStats();
+        mockMvc.perform(get("/rest/ships/5")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/5")).andExpect(status().isOk());
+        JsonNode after = cacheStats();
+
+        assertTrue("Кэш второго уровня должен быть включен.", after.get("enabled").asBoolean());
+        assertTrue("Повторный GET /rest/ships/{id} должен попадать в кэш.",
+                after.get("hits").asLong() > before.get("hits").asLong());
+    }
+
+    //test2
+    @Test
+    public void editedShipIsNotServedStale() throws Exception {
+        mockMvc.perform(get("/rest/ships/5")).andExpect(status().isOk());
+        mockMvc.perform(post("/rest/ships/5")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Excalibur II\"}"))
+                .andExpect(status().isOk());
+
+        ShipInfoTest ship = mapper.readValue(mockMvc.perform(get("/rest/ships/5"))
+                .andReturn().getResponse().getContentAsString(), ShipInfoTest.class);
+        assertEquals("После редактирования должен возвращаться новый корабль.", "Excalibur II", ship.name);
+    }
+
+    //test3
+    @Test
+    public void cachedCountFollowsBulkCreate() throws Exception {
+        int count = count();
+        JsonNode before = cacheStats();
+        assertEquals("Повторный подсчет должен совпадать.", count, count());
+        assertTrue("Повторный подсчет должен попадать в кэш запросов.",
+                cacheStats().get("queryHits").asLong() > before.get("queryHits").asLong());
+
+        mockMvc.perform(post("/rest/ships/bulk")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("[" + TestsHelper.NORMAL_JSON + "]"))
+                .andExpect(status().isOk());
+        assertEquals("Подсчет после добавления через JDBC не должен браться из устаревшего кэша.", count + 1, count());
+    }
+
+    private int count() throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/ships/count?shipType=MILITARY"))
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode cacheStats() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/stats/cache"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,94 @@
+package com.space.controller;
+
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipSearchField;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipTrigramIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.reflect.Proxy;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"ship.search.filter-enabled=true", "ship.search.max-candidates=10"})
+public class ShipSearchFilterTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+
+    @Before
+    public void rebuildIndex() {
+        // @Sql reloads the table behind the application's back
+        context.getBean(ShipTrigramIndex.class).rebuild();
+    }
+
+    //test1
+    @Test
+    public void indexedFilterMatchesLike() throws Exception {
+        for (String name : new String[]{"Ori", "ion", "Star", "xyz", "er", "a"}) {
+            assertEquals("Не правильное количество кораблей при поиске по имени " + name + ".",
+                    testsHelper.getShipInfosByName(name, testsHelper.getAllShips()).size(),
+                    count("/rest/ships/count?name=" + name));
+        }
+        for (String planet : new String[]{"Jupiter", "ars", "Nep", "e"}) {
+            assertEquals("Не правильное количество кораблей при поиске по планете " + planet + ".",
+                    testsHelper.getShipInfosByPlanet(planet, testsHelper.getAllShips()).size(),
+                    count("/rest/ships/count?planet=" + planet));
+        }
+    }
+
+    //test2
+    @Test
+    public void indexedFilterFollowsCreateEditAndDelete() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        assertEquals("Созданный корабль должен находиться по имени.", 1, count("/rest/ships/count?name=12345"));
+
+        mockMvc.perform(post("/rest/ships/41")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Millennium Falcon\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Старое имя не должно находиться после редактирования.", 0, count("/rest/ships/count?name=12345"));
+        assertEquals("Новое имя должно находиться после редактирования.", 1, count("/rest/ships/count?name=Falcon"));
+
+        mockMvc.perform(delete("/rest/ships/41"))
+                .andExpect(status().isOk());
+        assertEquals("Удаленный корабль не должен находиться.", 0, count("/rest/ships/count?name=Falcon"));
+    }
+
+    //test3
+    @Test
+    public void writeDuringRebuildIsKept() {
+        ShipRepository repository = context.getBean(ShipRepository.class);
+        ShipTrigramIndex[] index = new ShipTrigramIndex[1];
+        ShipRepository loadingRepository = (ShipRepository) Proxy.newProxyInstance(ShipRepository.class.getClassLoader(),
+                new Class<?>[]{ShipRepository.class}, (proxy, method, args) -> {
+                    Object result = method.invoke(repository, args);
+                    if (method.getName().equals("findSearchableFields")) {
+                        // the ship is deleted after the fleet was read but before the index is swapped in
+                        index[0].shipDeleted(1L);
+                    }
+                    return result;
+                });
+        index[0] = new ShipTrigramIndex(loadingRepository);
+
+        index[0].rebuild();
+
+        assertEquals("Удаление во время перестроения не должно теряться.", "[]",
+                index[0].similar(ShipSearchField.NAME, "Orion III", 0.9, 10).toString());
+    }
+
+    private int count(String url) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,116 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.ShipTrigramIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ShipSearchTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void rebuildIndex() {
+        // @Sql reloads the table behind the application's back
+        context.getBean(ShipTrigramIndex.class).rebuild();
+    }
+
+    //test1
+    @Test
+    public void substringFilterMatchesLike() throws Exception {
+        for (String name : new String[]{"Ori", "ion", "Star", "xyz", "er"}) {
+            List<ShipInfoTest> expected = testsHelper.getShipInfosByName(name, testsHelper.getAllShips());
+            assertEquals("Не правильное количество кораблей при поиске по имени " + name + ".",
+                    expected.size(), count("/rest/ships/count?name=" + name));
+        }
+    }
+
+    //test2
+    @Test
+    public void indexFollowsCreateEditAndDelete() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        assertEquals("Созданный корабль должен находиться по имени.", "[41]", search("123456789").toString());
+
+        mockMvc.perform(post("/rest/ships/41")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Millennium Falcon\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Старое имя не должно находиться после редактирования.", "[]", search("123456789").toString());
+        assertEquals("Новое имя должно находиться после редактирования.", "[41]", search("Millennium Falcon").toString());
+
+        mockMvc.perform(delete("/rest/ships/41"))
+                .andExpect(status().isOk());
+        assertEquals("Удаленный корабль не должен находиться.", "[]", search("Millennium Falcon").toString());
+    }
+
+    //test3
+    @Test
+    public void fuzzySearchToleratesTypos() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/search?q=Nostromu&limit=3")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> ships = mapper.readValue(contentAsString, new TypeReference<List<ShipInfoTest>>() {
+        });
+
+        assertEquals("Поиск с опечаткой должен находить корабль.", "Nostromo", ships.get(0).name);
+    }
+
+    //test4
+    @Test
+    public void fuzzySearchByPlanet() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/search?q=Jupyter&field=PLANET&limit=100")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> ships = mapper.readValue(contentAsString, new TypeReference<List<ShipInfoTest>>() {
+        });
+
+        assertEquals("Поиск с опечаткой должен находить все корабли с планеты.",
+                testsHelper.getShipInfosByPlanet("Jupiter", testsHelper.getAllShips()).size(), ships.size());
+    }
+
+    //test5
+    @Test
+    public void filterFindsShipsWrittenPastTheIndex() throws Exception {
+        context.getBean(JdbcTemplate.class).update("UPDATE ship SET name = 'Rocinante' WHERE id = 1");
+
+        assertEquals("Фильтр должен находить корабли, измененные в обход приложения.", 1,
+                count("/rest/ships/count?name=Rocinante"));
+    }
+
+    private List<Long> search(String q) throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/search")
+                .param("q", q)
+                .param("minSimilarity", "0.9")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> ships = mapper.readValue(contentAsString, new TypeReference<List<ShipInfoTest>>() {
+        });
+        return ships.stream().map(ship -> ship.id).collect(Collectors.toList());
+    }
+
+    private int count(String url) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get(url))
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,74 @@
+package com.space.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ShipStatementCountTest extends AbstractTest {
+
+    private Statistics statistics;
+
+    @Before
+    public void enableStatistics() {
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @After
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    //test1
+    @Test
+    public void getShipIsOneSelect() throws Exception {
+        mockMvc.perform(get("/rest/ships/1"))
+                .andExpect(status().isOk());
+
+        assertEquals("GET /rest/ships/{id} должен выполнять один запрос.", 1L, statistics.getPrepareStatementCount());
+    }
+
+    //test2
+    @Test
+    public void deleteShipIsOneDelete() throws Exception {
+        mockMvc.perform(delete("/rest/ships/1"))
+                .andExpect(status().isOk());
+
+        assertEquals("DELETE /rest/ships/{id} должен выполнять один запрос.", 1L, statistics.getPrepareStatementCount());
+        assertEquals("DELETE /rest/ships/{id} не должен загружать корабль.", 0L, statistics.getEntityLoadCount());
+    }
+
+    //test3
+    @Test
+    public void deleteMissingShipIsOneDelete() throws Exception {
+        mockMvc.perform(delete("/rest/ships/1000"))
+                .andExpect(status().isNotFound());
+
+        assertEquals("DELETE /rest/ships/{id} должен выполнять один запрос.", 1L, statistics.getPrepareStatementCount());
+    }
+
+    //test4
+    @Test
+    public void editShipIsOneSelectAndOneUpdate() throws Exception {
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Orion IV\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals("POST /rest/ships/{id} должен выполнять два запроса.", 2L, statistics.getPrepareStatementCount());
+        assertEquals("POST /rest/ships/{id} должен загружать корабль один раз.", 1L, statistics.getEntityLoadCount());
+        assertEquals("POST /rest/ships/{id} должен обновлять корабль один раз.", 1L, statistics.getEntityUpdateCount());
+    }
+}
@@ -0,0 +1,100 @@
+package com.space.controller;
+
+import com.space.service.ShipArchivePurger;
+import com.space.service.ShipTrigramIndex;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"ship.archive.before-year=2990", "ship.archive.chunk-size=2",
+        "ship.archive.max-rows-per-second=1000"})
+public class SoftDeleteTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void deletedShipIsHiddenButKept() throws Exception {
+        mockMvc.perform(delete("/rest/ships/1"))
+                .andExpect(status().isOk());
+
+        assertEquals("Удаленный корабль не должен учитываться.", 39L, count(""));
+        assertEquals("Удаленный корабль не должен находиться фильтром.", 0L, count("?name=Orion"));
+        assertNotNull("Удаленный корабль должен остаться в таблице с отметкой.",
+                jdbcTemplate().queryForObject("SELECT deletedAt FROM ship WHERE id = 1", Object.class));
+        mockMvc.perform(delete("/rest/ships/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    //test2
+    @Test
+    public void bulkUpdateSkipsDeletedShips() throws Exception {
+        mockMvc.perform(delete("/rest/ships/1"))
+                .andExpect(status().isOk());
+
+        String updated = mockMvc.perform(post("/rest/ships/bulk-update?planet=Mars")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"speed\":0.5}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Удаленный корабль не должен обновляться.", count("?planet=Mars"), Long.parseLong(updated));
+        assertEquals("Удаленный корабль не должен обновляться.", 0.82,
+                jdbcTemplate().queryForObject("SELECT speed FROM ship WHERE id = 1", Double.class));
+    }
+
+    //test3
+    @Test
+    public void purgeMovesDeletedAndOldShipsToArchive() throws Exception {
+        mockMvc.perform(delete("/rest/ships?shipType=MILITARY&isUsed=true"))
+                .andExpect(status().isOk());
+        long deleted = jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship WHERE deletedAt IS NOT NULL", Long.class);
+        long old = jdbcTemplate().queryForObject(
+                "SELECT COUNT(*) FROM ship WHERE deletedAt IS NULL AND prodDate < '2990-01-01'", Long.class);
+
+        int archived = context.getBean(ShipArchivePurger.class).purge();
+
+        assertEquals("Должны быть перенесены удаленные и старые корабли.", (int) (deleted + old), archived);
+        assertEquals("Перенесенные корабли должны быть в архиве.", deleted + old,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship_archive", Long.class));
+        assertEquals("Перенесенные корабли не должны остаться в таблице.", 40L - deleted - old,
+                jdbcTemplate().queryForObject("SELECT COUNT(*) FROM ship", Long.class));
+        assertEquals("Старые корабли не должны учитываться после переноса.", 40L - deleted - old, count(""));
+        assertEquals("Повторный перенос не должен ничего делать.", 0,
+                context.getBean(ShipArchivePurger.class).purge());
+    }
+
+    //test4
+    @Test
+    public void purgedShipsLeaveCachesAndIndexes() throws Exception {
+        context.getBean(ShipTrigramIndex.class).rebuild();
+        String eTag = mockMvc.perform(get("/rest/ships"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        context.getBean(ShipArchivePurger.class).purge();
+
+        mockMvc.perform(get("/rest/ships").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertEquals("Перенесенный корабль не должен находиться поиском.", "[]",
+                mockMvc.perform(get("/rest/ships/search?q=Odyssey&minSimilarity=0.9"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+    }
+
+    private long count(String query) throws Exception {
+        return Long.parseLong(mockMvc.perform(get("/rest/ships/count" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        return context.getBean(JdbcTemplate.class);
+    }
+}
@@ -0,0 +1,115 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.ShipPrefixIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SuggestTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void rebuildIndex() {
+        // @Sql reloads the table behind the application's back
+        context.getBean(ShipPrefixIndex.class).rebuild();
+    }
+
+    //test1
+    @Test
+    public void planetSuggestionsAreRankedByCount() throws Exception {
+        JsonNode suggestions = suggest("/rest/ships/suggest?field=PLANET&prefix=M&limit=3");
+
+        Map<String, Integer> counts = new TreeMap<>();
+        for (ShipInfoTest ship : testsHelper.getAllShips()) {
+            counts.merge(ship.planet, 1, Integer::sum);
+        }
+        assertEquals("Возвращается не правильное количество подсказок.", 2, suggestions.size());
+        int previous = Integer.MAX_VALUE;
+        for (JsonNode suggestion : suggestions) {
+            int count = suggestion.get("count").asInt();
+            assertEquals("Не правильное количество кораблей для планеты " + suggestion.get("value").asText() + ".",
+                    counts.get(suggestion.get("value").asText()).intValue(), count);
+            assertEquals("Подсказки должны быть упорядочены по убыванию количества.", true, count <= previous);
+            previous = count;
+        }
+    }
+
+    //test2
+    @Test
+    public void nameSuggestionsIgnoreCase() throws Exception {
+        JsonNode suggestions = suggest("/rest/ships/suggest?prefix=or");
+
+        long expected = testsHelper.getAllShips().stream()
+                .filter(ship -> ship.name.toLowerCase().startsWith("or"))
+                .map(ship -> ship.name).distinct().count();
+        assertEquals("Возвращается не правильное количество подсказок.", (int) expected, suggestions.size());
+        for (JsonNode suggestion : suggestions) {
+            assertEquals("Подсказка не начинается с префикса.", true,
+                    suggestion.get("value").asText().toLowerCase().startsWith("or"));
+        }
+    }
+
+    //test3
+    @Test
+    public void suggestionsFollowCreateAndDelete() throws Exception {
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        JsonNode suggestions = suggest("/rest/ships/suggest?prefix=1234");
+        assertEquals("Созданный корабль должен появиться в подсказках.", 1, suggestions.size());
+        assertEquals("Не правильная подсказка.", "123456789", suggestions.get(0).get("value").asText());
+
+        mockMvc.perform(delete("/rest/ships/41"))
+                .andExpect(status().isOk());
+        assertEquals("Удаленный корабль не должен появляться в подсказках.", 0,
+                suggest("/rest/ships/suggest?prefix=1234").size());
+    }
+
+    //test4
+    @Test
+    public void emptyPrefixIsRejected() throws Exception {
+        mockMvc.perform(get("/rest/ships/suggest?field=PLANET&prefix="))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test5
+    @Test
+    public void rankingFollowsCounts() throws Exception {
+        assertEquals("При равном количестве подсказки должны идти по алфавиту.", "Mars",
+                suggest("/rest/ships/suggest?field=PLANET&prefix=m&limit=1").get(0).get("value").asText());
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON.replace("Earth", "Mercury")))
+                .andExpect(status().isOk());
+        assertEquals("Планета с большим количеством кораблей должна быть первой.", "Mercury",
+                suggest("/rest/ships/suggest?field=PLANET&prefix=m&limit=1").get(0).get("value").asText());
+
+        mockMvc.perform(delete("/rest/ships/41"))
+                .andExpect(status().isOk());
+        assertEquals("После удаления порядок должен восстановиться.", "Mars",
+                suggest("/rest/ships/suggest?field=PLANET&prefix=m&limit=1").get(0).get("value").asText());
+    }
+
+    private JsonNode suggest(String url) throws Exception {
+        return mapper.readTree(mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,37 @@
+package com.space.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * The Calendar and BigDecimal rating implementation that PrimitiveRatingCalculator replaced,
+ * kept as the reference for correctness tests and benchmarks.
+ */
+public class BigDecimalRatingCalculator implements RatingCalculator {
+    private final int referenceYear;
+
+    public BigDecimalRatingCalculator(int referenceYear) {
+        this.referenceYear = referenceYear;
+    }
+
+    @Override
+    public int getReferenceYear() {
+        return referenceYear;
+    }
+
+    @Override
+    public int productionYear(Date prodDate) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(prodDate);
+        return cal.get(Calendar.YEAR);
+    }
+
+    @Override
+    public double rate(double speed, boolean used, int productionYear) {
+        BigDecimal raiting = BigDecimal.valueOf((80 * speed * (used ? 0.5 : 1)) / (referenceYear - productionYear + 1));
+        raiting = raiting.setScale(2, RoundingMode.HALF_UP);
+        return raiting.doubleValue();
+    }
+}
@@ -0,0 +1,50 @@
+package com.space.service;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PrimitiveRatingCalculatorTest {
+
+    private RatingCalculator expected = new BigDecimalRatingCalculator(3019);
+    private RatingCalculator actual = new PrimitiveRatingCalculator(3019);
+
+    //test1
+    @Test
+    public void productionYearMatchesCalendar() {
+        Random random = new Random(7);
+        long from = new GregorianCalendar(2700, 0, 1).getTimeInMillis() - 86_400_000L;
+        long to = new GregorianCalendar(3020, 0, 1).getTimeInMillis() + 86_400_000L;
+        for (int i = 0; i < 200_000; i++) {
+            Date date = new Date(from + (long) (random.nextDouble() * (to - from)));
+            assertEquals("Не правильный год для " + date.getTime(), expected.productionYear(date), actual.productionYear(date));
+        }
+    }
+
+    //test2
+    @Test
+    public void rateMatchesBigDecimal() {
+        Random random = new Random(11);
+        for (int i = 0; i < 1_000_000; i++) {
+            double speed = random.nextInt(2) == 0 ? 0.01 + random.nextInt(99) / 100.0 : 0.01 + random.nextDouble() * 0.98;
+            boolean used = random.nextBoolean();
+            int year = 2800 + random.nextInt(220);
+            assertEquals("Не правильный рейтинг для speed=" + speed + ", used=" + used + ", year=" + year,
+                    expected.rate(speed, used, year), actual.rate(speed, used, year), 0.0);
+        }
+    }
+
+    //test3
+    @Test
+    public void roundHalfUpRoundsDecimalTiesUp() {
+        assertEquals(1.01, PrimitiveRatingCalculator.roundHalfUp(1.005), 0.0);
+        assertEquals(0.13, PrimitiveRatingCalculator.roundHalfUp(0.125), 0.0);
+        assertEquals(2.68, PrimitiveRatingCalculator.roundHalfUp(2.675), 0.0);
+        assertEquals(1.0, PrimitiveRatingCalculator.roundHalfUp(Math.nextDown(1.005)), 0.0);
+        assertEquals(80.0, PrimitiveRatingCalculator.roundHalfUp(80.0), 0.0);
+    }
+}
@@ -1,4 +1,7 @@
 DROP TABLE IF EXISTS ship;
+DROP TABLE IF EXISTS ship_archive;
+DROP TABLE IF EXISTS ship_outbox;
+DROP TABLE IF EXISTS ship_outbox_checkpoint;
 
 CREATE TABLE ship
 (
@@ -11,9 +14,48 @@ CREATE TABLE ship
     speed    DOUBLE      NULL,
     crewSize INT(4)      NULL,
     rating   DOUBLE      NULL,
+    version  BIGINT(20)  NOT NULL DEFAULT 0,
+    lastModified TIMESTAMP NULL,
+    deletedAt TIMESTAMP NULL,
     PRIMARY KEY (id)
 );
 
+CREATE TABLE ship_archive
+(
+    id       BIGINT(20)  NOT NULL,
+    name     VARCHAR(50) NULL,
+    planet   VARCHAR(50) NULL,
+    shipType VARCHAR(9)  NULL,
+    prodDate date        NULL,
+    isUsed   BIT(1)      NULL,
+    speed    DOUBLE      NULL,
+    crewSize INT(4)      NULL,
+    rating   DOUBLE      NULL,
+    version  BIGINT(20)  NOT NULL DEFAULT 0,
+    lastModified TIMESTAMP NULL,
+    deletedAt TIMESTAMP NULL,
+    archivedAt TIMESTAMP NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ship_outbox
+(
+    id        BIGINT(20)  NOT NULL AUTO_INCREMENT,
+    eventType VARCHAR(13) NOT NULL,
+    shipId    BIGINT(20)  NULL,
+    payload   TEXT        NULL,
+    origin    VARCHAR(36) NULL,
+    createdAt TIMESTAMP   NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ship_outbox_checkpoint
+(
+    subscriber  VARCHAR(100) NOT NULL,
+    lastEventId BIGINT(20)   NOT NULL,
+    PRIMARY KEY (subscriber)
+);
+
 INSERT INTO ship(name, planet, shipType, prodDate, isUsed, speed, crewSize, rating)
 VALUES ('Orion III', 'Mars', 'MERCHANT', '2995-01-01', true, 0.82, 617, 1.31)
      , ('Daedalus', 'Jupiter', 'MERCHANT', '3001-01-01', true, 0.94, 1619, 1.98)